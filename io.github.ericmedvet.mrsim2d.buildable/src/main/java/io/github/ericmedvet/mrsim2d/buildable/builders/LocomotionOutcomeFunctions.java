@@ -22,6 +22,8 @@ import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
 
 import java.util.function.Function;
 
+//the ranges are open-ended, hence including the last observation: with transientTime > 0, the task must store the
+// observations (storeObservations=true)
 public class LocomotionOutcomeFunctions {
 
   private LocomotionOutcomeFunctions() {
@@ -31,28 +33,28 @@ public class LocomotionOutcomeFunctions {
   public static Function<Outcome, Double> avgArea(
       @Param(value = "transientTime", dD = 0) double transientTime
   ) {
-    return o -> o.subOutcome(new DoubleRange(transientTime, o.duration())).firstAgentAverageArea();
+    return o -> o.subOutcome(new DoubleRange(transientTime, Double.POSITIVE_INFINITY)).firstAgentAverageArea();
   }
 
   @SuppressWarnings("unused")
   public static Function<Outcome, Double> avgTerrainHeight(
       @Param(value = "transientTime", dD = 0) double transientTime
   ) {
-    return o -> o.subOutcome(new DoubleRange(transientTime, o.duration())).firstAgentAverageTerrainHeight();
+    return o -> o.subOutcome(new DoubleRange(transientTime, Double.POSITIVE_INFINITY)).firstAgentAverageTerrainHeight();
   }
 
   @SuppressWarnings("unused")
   public static Function<Outcome, Double> xDistance(
       @Param(value = "transientTime", dD = 0) double transientTime
   ) {
-    return o -> o.subOutcome(new DoubleRange(transientTime, o.duration())).firstAgentXDistance();
+    return o -> o.subOutcome(new DoubleRange(transientTime, Double.POSITIVE_INFINITY)).firstAgentXDistance();
   }
 
   @SuppressWarnings("unused")
   public static Function<Outcome, Double> xVelocity(
       @Param(value = "transientTime", dD = 0) double transientTime
   ) {
-    return o -> o.subOutcome(new DoubleRange(transientTime, o.duration())).firstAgentXVelocity();
+    return o -> o.subOutcome(new DoubleRange(transientTime, Double.POSITIVE_INFINITY)).firstAgentXVelocity();
   }
 
 }
@@ -21,9 +21,16 @@ import io.github.ericmedvet.jnb.core.Param;
 import io.github.ericmedvet.jnb.core.ParamMap;
 import io.github.ericmedvet.jsdynsym.core.DoubleRange;
 import io.github.ericmedvet.mrsim2d.core.Snapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.AdaptiveStepping;
+import io.github.ericmedvet.mrsim2d.core.engine.CollisionPipeline;
 import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.FidelityProfile;
+import io.github.ericmedvet.mrsim2d.core.engine.SleepPolicy;
+import io.github.ericmedvet.mrsim2d.core.engine.SnapshotPolicy;
+import io.github.ericmedvet.mrsim2d.core.engine.VoxelModel;
 import io.github.ericmedvet.mrsim2d.core.geometry.BoundingBox;
 import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.tasks.PopulationEvaluator;
 import io.github.ericmedvet.mrsim2d.core.tasks.Task;
 import io.github.ericmedvet.mrsim2d.viewer.Drawer;
 import io.github.ericmedvet.mrsim2d.viewer.Drawers;
@@ -36,6 +43,7 @@ import io.github.ericmedvet.mrsim2d.viewer.drawers.bodies.*;
 import io.github.ericmedvet.mrsim2d.viewer.framers.AllAgentsFramer;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.random.RandomGenerator;
@@ -147,8 +155,82 @@ public class Misc {
   }
 
   @SuppressWarnings("unused")
-  public static Supplier<Engine> engine() {
-    return () -> ServiceLoader.load(Engine.class).findFirst().orElseThrow();
+  public static Supplier<Engine> engine(
+      @Param(value = "snapshotMode", dS = "eager") SnapshotPolicy.Mode snapshotMode,
+      @Param(value = "snapshotPeriod", dI = 1) int snapshotPeriod,
+      @Param(value = "actionProfiling") boolean actionProfiling,
+      @Param(value = "controlPeriod", dI = 1) int controlPeriod,
+      @Param(value = "parallelAct") boolean parallelAct,
+      @Param(value = "parallelSense") boolean parallelSense,
+      @Param(value = "reuse") boolean reuse,
+      @Param(value = "wallTimeBudget", dD = Double.POSITIVE_INFINITY) double wallTimeBudget,
+      @Param(value = "profile", dS = "balanced") FidelityProfile fidelityProfile,
+      @Param(value = "broadphase", dS = "dynamic_aabb_tree") CollisionPipeline.Broadphase broadphase,
+      @Param(value = "narrowphase", dS = "gjk") CollisionPipeline.Narrowphase narrowphase,
+      @Param(value = "aabbExpansion", dD = 0.2) double aabbExpansion,
+      @Param(value = "sleeping", dB = true) boolean sleeping,
+      @Param(value = "sleepMaxLinearSpeed", dD = SleepPolicy.DEFAULT_MAX_LINEAR_SPEED) double sleepMaxLinearSpeed,
+      @Param(value = "sleepMaxAngularSpeed", dD = SleepPolicy.DEFAULT_MAX_ANGULAR_SPEED) double sleepMaxAngularSpeed,
+      @Param(value = "sleepMinTime", dD = SleepPolicy.DEFAULT_MIN_TIME) double sleepMinTime,
+      @Param(value = "voxelModel", dS = "standard") VoxelModel voxelModel,
+      @Param(value = "rigidBodyFusion") boolean rigidBodyFusion,
+      @Param(value = "adaptiveStepping") boolean adaptiveStepping,
+      @Param(value = "stepTolerance", dD = 0.005) double stepTolerance,
+      @Param(value = "maxStepHalvings", dI = 3) int maxStepHalvings
+  ) {
+    SnapshotPolicy snapshotPolicy = new SnapshotPolicy(snapshotMode, snapshotPeriod);
+    CollisionPipeline collisionPipeline = new CollisionPipeline(broadphase, narrowphase, aabbExpansion);
+    SleepPolicy sleepPolicy = sleeping ? new SleepPolicy(
+        sleepMaxLinearSpeed,
+        sleepMaxAngularSpeed,
+        sleepMinTime
+    ) : SleepPolicy.NEVER;
+    AdaptiveStepping stepping = adaptiveStepping ? new AdaptiveStepping(
+        stepTolerance,
+        maxStepHalvings
+    ) : AdaptiveStepping.DISABLED;
+    Supplier<Engine> engineSupplier = () -> {
+      Engine engine = ServiceLoader.load(Engine.class).findFirst().orElseThrow();
+      engine.setSnapshotPolicy(snapshotPolicy);
+      engine.setActionProfiling(actionProfiling);
+      engine.setControlPeriod(controlPeriod);
+      engine.setWallTimeBudget(wallTimeBudget);
+      engine.setFidelityProfile(fidelityProfile);
+      engine.setCollisionPipeline(collisionPipeline);
+      engine.setSleepPolicy(sleepPolicy);
+      engine.setVoxelModel(voxelModel);
+      engine.setRigidBodyFusion(rigidBodyFusion);
+      engine.setAdaptiveStepping(stepping);
+      if (parallelAct) {
+        engine.setActExecutor(ForkJoinPool.commonPool());
+      }
+      if (parallelSense) {
+        engine.setReadOnlyActionExecutor(ForkJoinPool.commonPool());
+      }
+      return engine;
+    };
+    if (!reuse) {
+      return engineSupplier;
+    }
+    //one engine per thread, reset at each get
+    ThreadLocal<Engine> threadEngine = ThreadLocal.withInitial(engineSupplier);
+    return () -> {
+      Engine engine = threadEngine.get();
+      engine.reset();
+      return engine;
+    };
+  }
+
+  @SuppressWarnings("unused")
+  public static <A, O> Function<List<A>, List<O>> populationEvaluator(
+      @Param("task") Task<A, O> task,
+      @Param(value = "engine", dNPM = "sim.engine()") Supplier<Engine> engineSupplier,
+      @Param(value = "nOfThreads", dI = 0) int nOfThreads
+  ) {
+    //workers run on the shared pool, as parallel acting and sensing do, so that evaluators do not own threads: at most
+    // its parallelism of them run at once
+    int nOfWorkers = nOfThreads > 0 ? nOfThreads : Runtime.getRuntime().availableProcessors();
+    return new PopulationEvaluator<>(task, engineSupplier, ForkJoinPool.commonPool(), nOfWorkers);
   }
 
   @SuppressWarnings("unused")
@@ -22,6 +22,8 @@ import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
 
 import java.util.function.Function;
 
+//the ranges are open-ended, hence including the last observation: with transientTime > 0, the task must store the
+// observations (storeObservations=true)
 public class PilingOutcomeFunctions {
 
   private PilingOutcomeFunctions() {
@@ -31,28 +33,28 @@ public class PilingOutcomeFunctions {
   public static Function<Outcome, Double> avgH(
       @Param(value = "transientTime", dD = 0) double transientTime
   ) {
-    return o -> o.subOutcome(new DoubleRange(transientTime, o.duration())).allAgentsAverageHeight();
+    return o -> o.subOutcome(new DoubleRange(transientTime, Double.POSITIVE_INFINITY)).allAgentsAverageHeight();
   }
 
   @SuppressWarnings("unused")
   public static Function<Outcome, Double> avgW(
       @Param(value = "transientTime", dD = 0) double transientTime
   ) {
-    return o -> o.subOutcome(new DoubleRange(transientTime, o.duration())).allAgentsAverageWidth();
+    return o -> o.subOutcome(new DoubleRange(transientTime, Double.POSITIVE_INFINITY)).allAgentsAverageWidth();
   }
 
   @SuppressWarnings("unused")
   public static Function<Outcome, Double> maxH(
       @Param(value = "transientTime", dD = 0) double transientTime
   ) {
-    return o -> o.subOutcome(new DoubleRange(transientTime, o.duration())).allAgentsMaxHeight();
+    return o -> o.subOutcome(new DoubleRange(transientTime, Double.POSITIVE_INFINITY)).allAgentsMaxHeight();
   }
 
   @SuppressWarnings("unused")
   public static Function<Outcome, Double> maxW(
       @Param(value = "transientTime", dD = 0) double transientTime
   ) {
-    return o -> o.subOutcome(new DoubleRange(transientTime, o.duration())).allAgentsMaxWidth();
+    return o -> o.subOutcome(new DoubleRange(transientTime, Double.POSITIVE_INFINITY)).allAgentsMaxWidth();
   }
 
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.buildable.builders;
+
+import io.github.ericmedvet.jnb.core.Param;
+import io.github.ericmedvet.jsdynsym.core.DoubleRange;
+import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
+import io.github.ericmedvet.mrsim2d.core.tasks.WindowedCondition;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+public class StopConditions {
+
+  private StopConditions() {
+  }
+
+  @SuppressWarnings("unused")
+  public static Predicate<Outcome> any(
+      @Param("conditions") List<Predicate<Outcome>> conditions
+  ) {
+    if (conditions.stream().anyMatch(c -> c instanceof WindowedCondition)) {
+      return (WindowedCondition) outcome -> conditions.stream().anyMatch(c -> c.test(outcome));
+    }
+    return outcome -> conditions.stream().anyMatch(c -> c.test(outcome));
+  }
+
+  @SuppressWarnings("unused")
+  public static Predicate<Outcome> never() {
+    return outcome -> false;
+  }
+
+  @SuppressWarnings("unused")
+  public static Predicate<Outcome> outOfBounds(
+      @Param(value = "minX", dD = Double.NEGATIVE_INFINITY) double minX,
+      @Param(value = "maxX", dD = Double.POSITIVE_INFINITY) double maxX,
+      @Param(value = "minY", dD = Double.NEGATIVE_INFINITY) double minY,
+      @Param(value = "maxY", dD = Double.POSITIVE_INFINITY) double maxY
+  ) {
+    return outcome -> outcome.lastObservation().getCenters().stream()
+        .anyMatch(c -> c.x() < minX || c.x() > maxX || c.y() < minY || c.y() > maxY);
+  }
+
+  //makes the task store observations
+  @SuppressWarnings("unused")
+  public static Predicate<Outcome> stagnation(
+      @Param(value = "time", dD = 10) double time,
+      @Param(value = "minXDistance", dD = 0.5) double minXDistance
+  ) {
+    return (WindowedCondition) outcome -> {
+      if (outcome.duration() < time) {
+        return false;
+      }
+      return outcome.subOutcome(new DoubleRange(outcome.lastT() - time, Double.POSITIVE_INFINITY))
+          .firstAgentXDistance() < minXDistance;
+    };
+  }
+
+}
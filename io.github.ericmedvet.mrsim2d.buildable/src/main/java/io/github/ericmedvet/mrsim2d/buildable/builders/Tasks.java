@@ -19,12 +19,14 @@ package io.github.ericmedvet.mrsim2d.buildable.builders;
 import io.github.ericmedvet.jnb.core.Param;
 import io.github.ericmedvet.mrsim2d.core.agents.gridvsr.GridBody;
 import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
+import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
 import io.github.ericmedvet.mrsim2d.core.tasks.locomotion.Locomotion;
 import io.github.ericmedvet.mrsim2d.core.tasks.locomotion.PrebuiltIndependentLocomotion;
 import io.github.ericmedvet.mrsim2d.core.tasks.piling.FallPiling;
 import io.github.ericmedvet.mrsim2d.core.tasks.piling.StandPiling;
 import io.github.ericmedvet.mrsim2d.core.util.Grid;
 
+import java.util.function.Predicate;
 import java.util.random.RandomGenerator;
 
 public class Tasks {
@@ -40,10 +42,23 @@ public class Tasks {
       @Param(value = "randomGenerator", dNPM = "sim.defaultRG()") RandomGenerator randomGenerator,
       @Param(value = "terrain", dNPM = "sim.terrain.flat()") Terrain terrain,
       @Param(value = "yGapRatio", dD = 1d) double yGapRatio,
-      @Param(value = "xGap", dD = 10d) double xGap
-
+      @Param(value = "xGap", dD = 10d) double xGap,
+      @Param(value = "stopCondition", dNPM = "sim.task.stopCondition.never()")
+      Predicate<Outcome> stopCondition,
+      @Param(value = "storeObservations") boolean storeObservations
   ) {
-    return new FallPiling(duration, fallInterval, nOfAgents, xSigmaRatio, randomGenerator, terrain, yGapRatio, xGap);
+    return new FallPiling(
+        duration,
+        fallInterval,
+        nOfAgents,
+        xSigmaRatio,
+        randomGenerator,
+        terrain,
+        yGapRatio,
+        xGap,
+        stopCondition,
+        storeObservations
+    );
   }
 
   @SuppressWarnings("unused")
@@ -51,9 +66,12 @@ public class Tasks {
       @Param(value = "duration", dD = 30) double duration,
       @Param(value = "terrain", dNPM = "sim.terrain.flat()") Terrain terrain,
       @Param(value = "initialXGap", dD = 1) double initialXGap,
-      @Param(value = "initialYGap", dD = 0.1) double initialYGap
+      @Param(value = "initialYGap", dD = 0.1) double initialYGap,
+      @Param(value = "stopCondition", dNPM = "sim.task.stopCondition.never()")
+      Predicate<Outcome> stopCondition,
+      @Param(value = "storeObservations") boolean storeObservations
   ) {
-    return new Locomotion(duration, terrain, initialXGap, initialYGap);
+    return new Locomotion(duration, terrain, initialXGap, initialYGap, stopCondition, storeObservations);
   }
 
   @SuppressWarnings("unused")
@@ -62,9 +80,20 @@ public class Tasks {
       @Param(value = "terrain", dNPM = "sim.terrain.flat()") Terrain terrain,
       @Param(value = "initialXGap", dD = 1) double initialXGap,
       @Param(value = "initialYGap", dD = 0.1) double initialYGap,
-      @Param(value = "shape") Grid<GridBody.VoxelType> shape
+      @Param(value = "shape") Grid<GridBody.VoxelType> shape,
+      @Param(value = "stopCondition", dNPM = "sim.task.stopCondition.never()")
+      Predicate<Outcome> stopCondition,
+      @Param(value = "storeObservations") boolean storeObservations
   ) {
-    return new PrebuiltIndependentLocomotion(duration, terrain, initialXGap, initialYGap, shape);
+    return new PrebuiltIndependentLocomotion(
+        duration,
+        terrain,
+        initialXGap,
+        initialYGap,
+        shape,
+        stopCondition,
+        storeObservations
+    );
   }
 
   @SuppressWarnings("unused")
@@ -74,9 +103,12 @@ public class Tasks {
       @Param(value = "xGapRatio", dD = 1) double xGapRatio,
       @Param(value = "terrain", dNPM = "sim.terrain.flat()") Terrain terrain,
       @Param(value = "firstXGap", dD = 10) double firstXGap,
-      @Param(value = "initialYGap", dD = 0.1) double initialYGap
+      @Param(value = "initialYGap", dD = 0.1) double initialYGap,
+      @Param(value = "stopCondition", dNPM = "sim.task.stopCondition.never()")
+      Predicate<Outcome> stopCondition,
+      @Param(value = "storeObservations") boolean storeObservations
   ) {
-    return new StandPiling(duration, nOfAgents, xGapRatio, terrain, firstXGap, initialYGap);
+    return new StandPiling(duration, nOfAgents, xGapRatio, terrain, firstXGap, initialYGap, stopCondition, storeObservations);
   }
 
 }
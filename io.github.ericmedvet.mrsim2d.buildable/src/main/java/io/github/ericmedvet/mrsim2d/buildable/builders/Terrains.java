@@ -22,8 +22,8 @@ import io.github.ericmedvet.mrsim2d.core.geometry.Path;
 import io.github.ericmedvet.mrsim2d.core.geometry.Point;
 import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
 
-import java.util.Arrays;
-import java.util.Random;
+import java.util.*;
+import java.util.function.Supplier;
 import java.util.random.RandomGenerator;
 
 /**
@@ -37,6 +37,31 @@ public class Terrains {
   public static final double CHUNK_H = 1d;
   public static final double BORDER_W = 10d;
   public static final double ANGLE = 10d;
+  private final static int N_OF_CACHED_TERRAINS = 16;
+  private final static Map<TerrainKey, Terrain> TERRAINS = new LinkedHashMap<>(N_OF_CACHED_TERRAINS, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<TerrainKey, Terrain> eldest) {
+      return size() > N_OF_CACHED_TERRAINS;
+    }
+  };
+
+  private Terrains() {
+  }
+
+  private record TerrainKey(String name, List<Object> params) {}
+
+  //terrains are immutable, hence the same terrain can be shared among all the tasks built with the same params
+  private static Terrain cached(String name, List<Object> params, Supplier<Terrain> terrainSupplier) {
+    TerrainKey key = new TerrainKey(name, params);
+    synchronized (TERRAINS) {
+      Terrain terrain = TERRAINS.get(key);
+      if (terrain == null) {
+        terrain = terrainSupplier.get();
+        TERRAINS.put(key, terrain);
+      }
+      return terrain;
+    }
+  }
 
   @SuppressWarnings("unused")
   public static Terrain downhill(
@@ -46,10 +71,10 @@ public class Terrains {
       @Param(value = "borderH", dD = BORDER_H) Double borderH,
       @Param(value = "a", dD = ANGLE) Double a
   ) {
-    return fromPath(
+    return cached("downhill", List.of(w, h, borderW, borderH, a), () -> fromPath(
         new Path(new Point(w, -w * Math.toRadians(a))),
         h, borderW, borderH
-    );
+    ));
   }
 
   @SuppressWarnings("unused")
@@ -59,29 +84,31 @@ public class Terrains {
       @Param(value = "borderW", dD = BORDER_W) Double borderW,
       @Param(value = "borderH", dD = BORDER_H) Double borderH
   ) {
-    return fromPath(
+    return cached("flat", List.of(w, h, borderW, borderH), () -> fromPath(
         new Path(new Point(w, 0)),
         h,
         borderW,
         borderH
-    );
+    ));
   }
 
   @SuppressWarnings("unused")
   private static Terrain fromPath(Path partialPath, double terrainH, double borderW, double borderH) {
-    Path path = new Path(Point.ORIGIN)
+    Path path = new Path.Builder(Point.ORIGIN)
         .moveBy(0, borderH)
         .moveBy(borderW, 0)
         .moveBy(0, -borderH)
         .moveBy(partialPath)
         .moveBy(0, borderH)
         .moveBy(borderW, 0)
-        .moveBy(0, -borderH);
+        .moveBy(0, -borderH)
+        .build();
     double maxX = Arrays.stream(path.points()).mapToDouble(Point::x).max().orElse(borderW);
     double minY = Arrays.stream(path.points()).mapToDouble(Point::y).min().orElse(borderW);
-    path = path
+    path = new Path.Builder(path)
         .add(maxX, minY - terrainH)
-        .moveBy(-maxX, 0);
+        .moveBy(-maxX, 0)
+        .build();
     return new Terrain(path.toPoly(), new DoubleRange(borderW, maxX - borderW));
   }
 
@@ -95,16 +122,18 @@ public class Terrains {
       @Param(value = "chunkH", dD = CHUNK_H) Double chunkH,
       @Param(value = "seed", dI = 1) Integer seed
   ) {
-    RandomGenerator random = new Random(seed);
-    Path path = new Path(new Point(chunkW, 0));
-    double dW = 0d;
-    while (dW < w) {
-      double sW = Math.max(1d, (random.nextGaussian() * 0.25 + 1) * chunkW);
-      double sH = random.nextGaussian() * chunkH;
-      dW = dW + sW;
-      path = path.moveBy(sW, sH);
-    }
-    return fromPath(path, h, borderW, borderH);
+    return cached("hilly", List.of(w, h, borderW, borderH, chunkW, chunkH, seed), () -> {
+      RandomGenerator random = new Random(seed);
+      Path.Builder path = new Path.Builder(new Point(chunkW, 0));
+      double dW = 0d;
+      while (dW < w) {
+        double sW = Math.max(1d, (random.nextGaussian() * 0.25 + 1) * chunkW);
+        double sH = random.nextGaussian() * chunkH;
+        dW = dW + sW;
+        path.moveBy(sW, sH);
+      }
+      return fromPath(path.build(), h, borderW, borderH);
+    });
   }
 
   @SuppressWarnings("unused")
@@ -117,18 +146,20 @@ public class Terrains {
       @Param(value = "chunkH", dD = CHUNK_H) Double chunkH,
       @Param(value = "seed", dI = 1) Integer seed
   ) {
-    RandomGenerator random = new Random(seed);
-    Path path = new Path(new Point(chunkW, 0));
-    double dW = 0d;
-    while (dW < w) {
-      double sW = Math.max(1d, (random.nextGaussian() * 0.25 + 1) * chunkW);
-      double sH = random.nextGaussian() * chunkH;
-      dW = dW + sW;
-      path = path
-          .moveBy(sW, 0)
-          .moveBy(0, sH);
-    }
-    return fromPath(path, h, borderW, borderH);
+    return cached("steppy", List.of(w, h, borderW, borderH, chunkW, chunkH, seed), () -> {
+      RandomGenerator random = new Random(seed);
+      Path.Builder path = new Path.Builder(new Point(chunkW, 0));
+      double dW = 0d;
+      while (dW < w) {
+        double sW = Math.max(1d, (random.nextGaussian() * 0.25 + 1) * chunkW);
+        double sH = random.nextGaussian() * chunkH;
+        dW = dW + sW;
+        path
+            .moveBy(sW, 0)
+            .moveBy(0, sH);
+      }
+      return fromPath(path.build(), h, borderW, borderH);
+    });
   }
 
   @SuppressWarnings("unused")
@@ -139,10 +170,10 @@ public class Terrains {
       @Param(value = "borderH", dD = BORDER_H) Double borderH,
       @Param(value = "a", dD = ANGLE) Double a
   ) {
-    return fromPath(
+    return cached("uphill", List.of(w, h, borderW, borderH, a), () -> fromPath(
         new Path(new Point(w, w * Math.toRadians(a))),
         h, borderW, borderH
-    );
+    ));
   }
 
 }
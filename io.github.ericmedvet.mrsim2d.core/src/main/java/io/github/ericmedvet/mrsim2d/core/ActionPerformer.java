@@ -16,6 +16,9 @@
 
 package io.github.ericmedvet.mrsim2d.core;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author "Eric Medvet" on 2022/07/08 for 2dmrsim
  */
@@ -27,4 +30,24 @@ public interface ActionPerformer {
     return perform(action, null);
   }
 
+  default List<ActionOutcome<?, ?>> performAll(List<? extends Action<?>> actions, Agent agent) {
+    List<ActionOutcome<?, ?>> outcomes = new ArrayList<>(actions.size());
+    for (Action<?> action : actions) {
+      outcomes.add(perform(action, agent));
+    }
+    return outcomes;
+  }
+
+  /**
+   * Performs all the actions and writes the numeric outcome of the {@code i}-th action in {@code values[i]}, or
+   * {@code Double.NaN} if the outcome is empty or not numeric.
+   */
+  default List<ActionOutcome<?, ?>> performAll(List<? extends Action<?>> actions, Agent agent, double[] values) {
+    List<ActionOutcome<?, ?>> outcomes = performAll(actions, agent);
+    for (int i = 0; i < outcomes.size(); i++) {
+      values[i] = outcomes.get(i).outcome().orElse(null) instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+    return outcomes;
+  }
+
 }
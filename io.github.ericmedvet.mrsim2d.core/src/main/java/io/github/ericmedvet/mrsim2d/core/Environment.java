@@ -23,6 +23,12 @@ public interface Environment extends ActionPerformer {
 
   double t();
 
+  /**
+   * Advances the simulation by one step.
+   *
+   * @return the snapshot of the environment after the step, or {@code null} if no snapshot has been built for this
+   * step
+   */
   Snapshot tick();
 
 }
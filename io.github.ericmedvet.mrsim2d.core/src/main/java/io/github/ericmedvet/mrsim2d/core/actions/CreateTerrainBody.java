@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.actions;
+
+import io.github.ericmedvet.mrsim2d.core.Action;
+import io.github.ericmedvet.mrsim2d.core.bodies.UnmovableBody;
+import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+
+/**
+ * Creates an unmovable body meant to be used as a terrain: differently than with {@link CreateUnmovableBody}, the
+ * engine may model only the boundary of the poly (e.g., as a chain of segments), rather than its inner area. If
+ * {@code chunkW} is finite, the engine may keep in the simulation only the chunks of the terrain, each {@code chunkW}
+ * wide, overlapping the x-range of the moving bodies, widened by {@code windowPadding} on both sides.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public record CreateTerrainBody(
+    Poly poly,
+    double anchorsDensity,
+    double chunkW,
+    double windowPadding
+) implements Action<UnmovableBody> {
+  public CreateTerrainBody(Poly poly, double anchorsDensity) {
+    this(poly, anchorsDensity, Double.POSITIVE_INFINITY, 0);
+  }
+
+  public CreateTerrainBody(Poly poly) {
+    this(poly, Double.POSITIVE_INFINITY);
+  }
+}
@@ -19,15 +19,28 @@ package io.github.ericmedvet.mrsim2d.core.actions;
 import io.github.ericmedvet.mrsim2d.core.Action;
 import io.github.ericmedvet.mrsim2d.core.bodies.UnmovableBody;
 import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
 
 /**
+ * Creates an unmovable body with the shape of {@code poly}. If {@code terrain} is not null, the body is the given
+ * terrain: engines may then keep it across resets and reuse it for the same terrain.
+ *
  * @author "Eric Medvet" on 2022/07/06 for 2dmrsim
  */
 public record CreateUnmovableBody(
     Poly poly,
-    double anchorsDensity
+    double anchorsDensity,
+    Terrain terrain
 ) implements Action<UnmovableBody> {
+  public CreateUnmovableBody(Poly poly, double anchorsDensity) {
+    this(poly, anchorsDensity, null);
+  }
+
   public CreateUnmovableBody(Poly poly) {
     this(poly, Double.POSITIVE_INFINITY);
   }
+
+  public CreateUnmovableBody(Terrain terrain) {
+    this(terrain.poly(), Double.POSITIVE_INFINITY, terrain);
+  }
 }
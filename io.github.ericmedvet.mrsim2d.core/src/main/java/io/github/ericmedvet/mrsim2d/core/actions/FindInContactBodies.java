@@ -16,10 +16,10 @@
 
 package io.github.ericmedvet.mrsim2d.core.actions;
 
-import io.github.ericmedvet.mrsim2d.core.Action;
+import io.github.ericmedvet.mrsim2d.core.ReadOnlyAction;
 import io.github.ericmedvet.mrsim2d.core.bodies.Body;
 
 import java.util.Collection;
 
-public record FindInContactBodies(Body body) implements Action<Collection<Body>> {
+public record FindInContactBodies(Body body) implements ReadOnlyAction<Collection<Body>> {
 }
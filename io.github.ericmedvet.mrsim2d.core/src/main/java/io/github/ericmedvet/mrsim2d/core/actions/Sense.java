@@ -17,13 +17,13 @@
 package io.github.ericmedvet.mrsim2d.core.actions;
 
 import io.github.ericmedvet.jsdynsym.core.DoubleRange;
-import io.github.ericmedvet.mrsim2d.core.Action;
+import io.github.ericmedvet.mrsim2d.core.ReadOnlyAction;
 import io.github.ericmedvet.mrsim2d.core.bodies.Body;
 
 /**
  * @author "Eric Medvet" on 2022/07/09 for 2dmrsim
  */
-public interface Sense<B extends Body> extends Action<Double> {
+public interface Sense<B extends Body> extends ReadOnlyAction<Double> {
   B body();
   DoubleRange range();
 
@@ -24,9 +24,10 @@ import io.github.ericmedvet.mrsim2d.core.bodies.Body;
 import io.github.ericmedvet.mrsim2d.core.geometry.Point;
 import io.github.ericmedvet.mrsim2d.core.util.*;
 
-import java.time.Duration;
-import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -43,7 +44,8 @@ public abstract class AbstractEngine implements Engine, Profiled {
       5,
       0.5,
       Math.PI / 2d,
-      8
+      8,
+      true
   );
   private final static Logger L = Logger.getLogger(AbstractEngine.class.getName());
   protected final AtomicDouble t;
@@ -51,18 +53,31 @@ public abstract class AbstractEngine implements Engine, Profiled {
   protected final List<Pair<Agent, List<ActionOutcome<?, ?>>>> agentPairs;
   private final Configuration configuration;
   private final Map<Class<? extends Action<?>>, ActionSolver<?, ?>> actionSolvers;
-  private final Instant startingInstant;
+  private final Map<Class<? extends Action<?>>, BatchActionSolver<?, ?>> batchActionSolvers;
+  private final ClassValue<Integer> actionClassIndexes;
   private final EnumMap<EngineSnapshot.TimeType, AtomicDouble> times;
   private final EnumMap<EngineSnapshot.CounterType, AtomicInteger> counters;
-  private final List<ActionOutcome<?, ?>> lastTickPerformedActions;
+  private List<ActionOutcome<?, ?>> lastTickPerformedActions;
   private SpatialMap<NFCMessage> lastNFCMessages;
   private SpatialMap<NFCMessage> newNFCMessages;
+  private SnapshotPolicy snapshotPolicy;
+  private boolean recordingOutcomes;
+  private boolean actionProfiling;
+  private int controlPeriod;
+  private double wallTimeBudget;
+  private Executor actExecutor;
+  private final Performer performer;
+  private final List<DeferredActions> deferredActions;
+  private Executor readOnlyActionExecutor;
+  private long startingNanoTime;
+  private volatile IndexedActionClass[] indexedActionClasses;
 
   public AbstractEngine(Configuration configuration) {
     this.configuration = configuration;
     bodies = new ArrayList<>();
     agentPairs = new ArrayList<>();
     actionSolvers = new LinkedHashMap<>();
+    batchActionSolvers = new LinkedHashMap<>();
     t = new AtomicDouble(0d);
     lastTickPerformedActions = new ArrayList<>();
     lastNFCMessages = new HashSpatialMap<>(configuration.nfcDistanceRange);
@@ -70,7 +85,20 @@ public abstract class AbstractEngine implements Engine, Profiled {
     counters = new EnumMap<>(EngineSnapshot.CounterType.class);
     Arrays.stream(EngineSnapshot.TimeType.values()).forEach(t -> times.put(t, new AtomicDouble(0d)));
     Arrays.stream(EngineSnapshot.CounterType.values()).forEach(t -> counters.put(t, new AtomicInteger(0)));
-    startingInstant = Instant.now();
+    startingNanoTime = System.nanoTime();
+    snapshotPolicy = SnapshotPolicy.EAGER;
+    recordingOutcomes = true;
+    indexedActionClasses = new IndexedActionClass[0];
+    performer = new Performer();
+    controlPeriod = 1;
+    wallTimeBudget = Double.POSITIVE_INFINITY;
+    deferredActions = new ArrayList<>();
+    actionClassIndexes = new ClassValue<>() {
+      @Override
+      protected Integer computeValue(Class<?> type) {
+        return indexActionClass(type);
+      }
+    };
     registerActionSolvers();
   }
 
@@ -83,19 +111,262 @@ public abstract class AbstractEngine implements Engine, Profiled {
     O solve(A action, Agent agent) throws ActionException;
   }
 
+  @FunctionalInterface
+  protected interface BatchActionSolver<A extends ReadOnlyAction<O>, O> {
+    List<O> solve(List<A> actions, Agent agent) throws ActionException;
+  }
+
   public record Configuration(
       double attractionRange,
       double attractLinkRangeRatio,
       double bodyFindRange,
       double nfcDistanceRange,
       double nfcAngleRange,
-      int nfcChannels
+      int nfcChannels,
+      boolean recordActuateOutcomes
+  ) {}
+
+  private static final class ActionStats {
+    private final int[] timeHistogram;
+    private int count;
+    private long nanoTime;
+
+    private ActionStats() {
+      timeHistogram = new int[EngineSnapshot.ActionProfile.N_OF_TIME_BINS];
+    }
+
+    private synchronized void add(long elapsedNanoTime) {
+      add(elapsedNanoTime, 1);
+    }
+
+    //actions solved in batch are accounted as if each took the same share of time
+    private synchronized void add(long elapsedNanoTime, int n) {
+      count = count + n;
+      nanoTime = nanoTime + elapsedNanoTime;
+      timeHistogram[EngineSnapshot.ActionProfile.timeBin(elapsedNanoTime / n)] += n;
+    }
+
+    private synchronized void reset() {
+      count = 0;
+      nanoTime = 0;
+      Arrays.fill(timeHistogram, 0);
+    }
+
+    private synchronized EngineSnapshot.ActionProfile profile() {
+      return new EngineSnapshot.ActionProfile(count, nanoTime / 1000000000d, timeHistogram.clone());
+    }
+  }
+
+  private record IndexedActionClass(
+      Class<?> actionClass,
+      ActionSolver<?, ?> actionSolver,
+      BatchActionSolver<?, ?> batchActionSolver,
+      boolean outcomeRecorded,
+      ActionStats stats,
+      ActionStats nestedStats
+  ) {}
+
+  private class Performer implements ActionPerformer {
+    private int depth;
+
+    protected void addPerformTime(long nanoTime) {
+      times.get(EngineSnapshot.TimeType.PERFORM).add(nanoTime / 1000000000d);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <A extends Action<O>, O> ActionOutcome<A, O> perform(A action, Agent agent) {
+      long performStartingNanoTime = System.nanoTime();
+      counters.get(EngineSnapshot.CounterType.ACTION).incrementAndGet();
+      IndexedActionClass indexedActionClass = indexedActionClasses[actionClassIndexes.get(action.getClass())];
+      ActionSolver<A, O> actionSolver = (ActionSolver<A, O>) indexedActionClass.actionSolver();
+      if (actionSolver == null && indexedActionClass.batchActionSolver() != null) {
+        actionSolver = (a, ag) -> ((BatchActionSolver<ReadOnlyAction<O>, O>) indexedActionClass.batchActionSolver())
+            .solve(List.of((ReadOnlyAction<O>) a), ag)
+            .get(0);
+      }
+      depth = depth + 1;
+      O o = null;
+      if (actionSolver == null) {
+        //try composite action
+        if (action instanceof SelfDescribedAction<?> selfDescribedAction) {
+          try {
+            o = (O) selfDescribedAction.perform(this, agent);
+          } catch (ActionException e) {
+            L.finer(String.format("Ignoring illegal action %s due to %s", action.getClass().getSimpleName(), e));
+            counters.get(EngineSnapshot.CounterType.ILLEGAL_ACTION).incrementAndGet();
+          } catch (RuntimeException e) {
+            L.warning(String.format("Ignoring action %s throwing exception: %s", action.getClass().getSimpleName(), e));
+            counters.get(EngineSnapshot.CounterType.ILLEGAL_ACTION).incrementAndGet();
+          }
+        } else {
+          //keep note as unsupported action
+          L.finer(String.format("Ignoring unsupported action: %s", action.getClass().getSimpleName()));
+          counters.get(EngineSnapshot.CounterType.UNSUPPORTED_ACTION).incrementAndGet();
+        }
+      } else {
+        try {
+          o = actionSolver.solve(action, agent);
+        } catch (ActionException e) {
+          L.finer(String.format("Ignoring illegal action %s due to %s", action.getClass().getSimpleName(), e));
+          counters.get(EngineSnapshot.CounterType.ILLEGAL_ACTION).incrementAndGet();
+        } catch (RuntimeException e) {
+          L.warning(String.format("Ignoring action %s throwing exception: %s", action.getClass().getSimpleName(), e));
+          counters.get(EngineSnapshot.CounterType.ILLEGAL_ACTION).incrementAndGet();
+        }
+      }
+      depth = depth - 1;
+      ActionOutcome<A, O> outcome = new ActionOutcome<>(agent, action, Optional.ofNullable(o));
+      if (recordingOutcomes && indexedActionClass.outcomeRecorded()) {
+        record(outcome);
+      }
+      long elapsedNanoTime = System.nanoTime() - performStartingNanoTime;
+      //actions performed by other actions are already accounted in the time of the outer one
+      if (depth == 0) {
+        addPerformTime(elapsedNanoTime);
+      }
+      if (actionProfiling) {
+        (depth == 0 ? indexedActionClass.stats() : indexedActionClass.nestedStats()).add(elapsedNanoTime);
+      }
+      return outcome;
+    }
+
+    @Override
+    public List<ActionOutcome<?, ?>> performAll(List<? extends Action<?>> actions, Agent agent) {
+      ActionOutcome<?, ?>[] outcomes = new ActionOutcome<?, ?>[actions.size()];
+      //read-only actions with a batch solver are accumulated until a non read-only action is met
+      Map<IndexedActionClass, List<Integer>> batches = new LinkedHashMap<>();
+      for (int i = 0; i < actions.size(); i++) {
+        Action<?> action = actions.get(i);
+        IndexedActionClass indexedActionClass = indexedActionClasses[actionClassIndexes.get(action.getClass())];
+        if (indexedActionClass.batchActionSolver() != null) {
+          batches.computeIfAbsent(indexedActionClass, c -> new ArrayList<>()).add(i);
+        } else {
+          if (!(action instanceof ReadOnlyAction<?>)) {
+            performBatches(batches, actions, agent, outcomes);
+          }
+          outcomes[i] = perform(action, agent);
+        }
+      }
+      performBatches(batches, actions, agent, outcomes);
+      return Arrays.asList(outcomes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <A extends ReadOnlyAction<O>, O> void performBatch(
+        IndexedActionClass indexedActionClass,
+        List<Integer> actionIndexes,
+        List<? extends Action<?>> actions,
+        Agent agent,
+        ActionOutcome<?, ?>[] outcomes
+    ) {
+      long performStartingNanoTime = System.nanoTime();
+      List<A> batchActions = actionIndexes.stream().map(i -> (A) actions.get(i)).toList();
+      List<O> batchOutcomes;
+      try {
+        batchOutcomes = ((BatchActionSolver<A, O>) indexedActionClass.batchActionSolver()).solve(batchActions, agent);
+      } catch (ActionException | RuntimeException e) {
+        //fall back to one action at a time, to isolate the failing ones
+        L.finer(String.format(
+            "Performing one by one %d actions %s due to %s",
+            batchActions.size(),
+            indexedActionClass.actionClass().getSimpleName(),
+            e
+        ));
+        actionIndexes.forEach(i -> outcomes[i] = perform(actions.get(i), agent));
+        return;
+      }
+      counters.get(EngineSnapshot.CounterType.ACTION).addAndGet(batchActions.size());
+      for (int j = 0; j < batchActions.size(); j++) {
+        ActionOutcome<A, O> outcome = new ActionOutcome<>(
+            agent,
+            batchActions.get(j),
+            Optional.ofNullable(batchOutcomes.get(j))
+        );
+        if (recordingOutcomes && indexedActionClass.outcomeRecorded()) {
+          record(outcome);
+        }
+        outcomes[actionIndexes.get(j)] = outcome;
+      }
+      long elapsedNanoTime = System.nanoTime() - performStartingNanoTime;
+      if (depth == 0) {
+        addPerformTime(elapsedNanoTime);
+      }
+      if (actionProfiling) {
+        (depth == 0 ? indexedActionClass.stats() : indexedActionClass.nestedStats()).add(
+            elapsedNanoTime,
+            batchActions.size()
+        );
+      }
+    }
+
+    private void performBatches(
+        Map<IndexedActionClass, List<Integer>> batches,
+        List<? extends Action<?>> actions,
+        Agent agent,
+        ActionOutcome<?, ?>[] outcomes
+    ) {
+      batches.forEach((indexedActionClass, actionIndexes) -> performBatch(
+          indexedActionClass,
+          actionIndexes,
+          actions,
+          agent,
+          outcomes
+      ));
+      batches.clear();
+    }
+
+    protected void record(ActionOutcome<?, ?> outcome) {
+      lastTickPerformedActions.add(outcome);
+    }
+  }
+
+  //used on worker threads: keeps outcomes and times for later merging on the ticking thread
+  private class DeferringPerformer extends Performer {
+    private final List<ActionOutcome<?, ?>> outcomes;
+    private long performNanoTime;
+
+    private DeferringPerformer() {
+      outcomes = new ArrayList<>();
+    }
+
+    @Override
+    protected void addPerformTime(long nanoTime) {
+      performNanoTime = performNanoTime + nanoTime;
+    }
+
+    @Override
+    protected void record(ActionOutcome<?, ?> outcome) {
+      outcomes.add(outcome);
+    }
+  }
+
+  private record DeferredActions(
+      Agent agent,
+      List<? extends Action<?>> actions,
+      ActionOutcome<?, ?>[] outcomes,
+      int[] actionIndexes
   ) {}
 
   protected abstract Collection<Body> getBodies();
 
   protected abstract double innerTick();
 
+  /**
+   * Checks, after the inner tick, if the simulation is numerically sound. Engines may override this with a cheap
+   * check, e.g., for non-finite positions or huge velocities.
+   */
+  protected boolean isHealthy() {
+    return true;
+  }
+
+  /**
+   * Lets engines account for their own events, e.g., the pairs of bodies found by the broadphase in the inner tick.
+   */
+  protected final void addToCounter(EngineSnapshot.CounterType counterType, int delta) {
+    counters.get(counterType).addAndGet(delta);
+  }
+
   protected Agent addAgent(AddAgent action, Agent agent) throws ActionException {
     if (action.agent() instanceof EmbodiedAgent embodiedAgent) {
       embodiedAgent.assemble(this);
@@ -173,46 +444,135 @@ public abstract class AbstractEngine implements Engine, Profiled {
     return message;
   }
 
-  @SuppressWarnings("unchecked")
+  private static Stream<Map.Entry<String, Number>> actionProfileValues(
+      String prefix,
+      Map<Class<?>, EngineSnapshot.ActionProfile> actionProfiles
+  ) {
+    return actionProfiles.entrySet().stream().flatMap(e -> Stream.of(
+        Map.entry(prefix + e.getKey().getSimpleName() + "_count", e.getValue().count()),
+        Map.entry(prefix + e.getKey().getSimpleName() + "_time", e.getValue().time())
+    ));
+  }
+
+  private Map<Class<?>, EngineSnapshot.ActionProfile> actionProfiles(boolean nested) {
+    if (!actionProfiling) {
+      return Map.of();
+    }
+    return Arrays.stream(indexedActionClasses)
+        .map(c -> new Pair<>(c.actionClass(), (nested ? c.nestedStats() : c.stats()).profile()))
+        .filter(p -> p.second().count() > 0)
+        .collect(Collectors.toMap(Pair::first, Pair::second));
+  }
+
+  private synchronized int indexActionClass(Class<?> actionClass) {
+    //the array is replaced, not modified, so that it can be safely read while a new class is being indexed
+    int index = indexedActionClasses.length;
+    IndexedActionClass[] newIndexedActionClasses = Arrays.copyOf(indexedActionClasses, index + 1);
+    newIndexedActionClasses[index] = new IndexedActionClass(
+        actionClass,
+        actionSolvers.get(actionClass),
+        batchActionSolvers.get(actionClass),
+        configuration.recordActuateOutcomes || !Actuate.class.isAssignableFrom(actionClass),
+        new ActionStats(),
+        new ActionStats()
+    );
+    indexedActionClasses = newIndexedActionClasses;
+    return index;
+  }
+
   @Override
   public <A extends Action<O>, O> ActionOutcome<A, O> perform(A action, Agent agent) {
-    Instant performStartingInstant = Instant.now();
-    counters.get(EngineSnapshot.CounterType.ACTION).incrementAndGet();
-    ActionSolver<A, O> actionSolver = (ActionSolver<A, O>) actionSolvers.get(action.getClass());
-    O o = null;
-    if (actionSolver == null) {
-      //try composite action
-      if (action instanceof SelfDescribedAction<?> selfDescribedAction) {
-        try {
-          o = (O) selfDescribedAction.perform(this, agent);
-        } catch (ActionException e) {
-          L.finer(String.format("Ignoring illegal action %s due to %s", action.getClass().getSimpleName(), e));
-          counters.get(EngineSnapshot.CounterType.ILLEGAL_ACTION).incrementAndGet();
-        } catch (RuntimeException e) {
-          L.warning(String.format("Ignoring action %s throwing exception: %s", action.getClass().getSimpleName(), e));
-          counters.get(EngineSnapshot.CounterType.ILLEGAL_ACTION).incrementAndGet();
+    return performer.perform(action, agent);
+  }
+
+  @Override
+  public List<ActionOutcome<?, ?>> performAll(List<? extends Action<?>> actions, Agent agent) {
+    return performer.performAll(actions, agent);
+  }
+
+  private int parallelActAndPerform() {
+    double actT = t.get();
+    List<CompletableFuture<? extends List<? extends Action<?>>>> futureActions = agentPairs.stream()
+        .<CompletableFuture<? extends List<? extends Action<?>>>>map(p -> CompletableFuture.supplyAsync(
+            () -> p.first().act(actT, p.second()),
+            actExecutor
+        ))
+        .toList();
+    //actions are performed on this thread in agent order, hence with the same outcomes of the serial case
+    for (int i = 0; i < futureActions.size(); i++) {
+      try {
+        performAgentActions(i, futureActions.get(i).join());
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
         }
+        throw e;
+      }
+    }
+    return futureActions.size();
+  }
+
+  private void performAgentActions(int agentIndex, List<? extends Action<?>> actions) {
+    Agent agent = agentPairs.get(agentIndex).first();
+    if (readOnlyActionExecutor == null) {
+      agentPairs.set(agentIndex, new Pair<>(agent, performAll(actions, agent)));
+      return;
+    }
+    //read-only actions are deferred after all agents acted: their outcomes are filled in later, at their position
+    ActionOutcome<?, ?>[] outcomes = new ActionOutcome<?, ?>[actions.size()];
+    int[] readOnlyActionIndexes = new int[actions.size()];
+    int nOfReadOnlyActions = 0;
+    for (int i = 0; i < actions.size(); i++) {
+      if (actions.get(i) instanceof ReadOnlyAction<?>) {
+        readOnlyActionIndexes[nOfReadOnlyActions] = i;
+        nOfReadOnlyActions = nOfReadOnlyActions + 1;
       } else {
-        //keep note as unsupported action
-        L.finer(String.format("Ignoring unsupported action: %s", action.getClass().getSimpleName()));
-        counters.get(EngineSnapshot.CounterType.UNSUPPORTED_ACTION).incrementAndGet();
+        outcomes[i] = perform(actions.get(i), agent);
       }
-    } else {
+    }
+    if (nOfReadOnlyActions > 0) {
+      deferredActions.add(new DeferredActions(
+          agent,
+          actions,
+          outcomes,
+          Arrays.copyOf(readOnlyActionIndexes, nOfReadOnlyActions)
+      ));
+    }
+    agentPairs.set(agentIndex, new Pair<>(agent, Arrays.asList(outcomes)));
+  }
+
+  private void performDeferredActions() {
+    List<CompletableFuture<DeferringPerformer>> futurePerformers = deferredActions.stream()
+        .map(d -> CompletableFuture.supplyAsync(
+            () -> {
+              DeferringPerformer deferringPerformer = new DeferringPerformer();
+              List<ActionOutcome<?, ?>> outcomes = deferringPerformer.performAll(
+                  Arrays.stream(d.actionIndexes()).mapToObj(i -> d.actions().get(i)).toList(),
+                  d.agent()
+              );
+              for (int i = 0; i < d.actionIndexes().length; i++) {
+                d.outcomes()[d.actionIndexes()[i]] = outcomes.get(i);
+              }
+              return deferringPerformer;
+            },
+            readOnlyActionExecutor
+        ))
+        .toList();
+    deferredActions.clear();
+    //merge in agent order
+    for (CompletableFuture<DeferringPerformer> futurePerformer : futurePerformers) {
+      DeferringPerformer deferringPerformer;
       try {
-        o = actionSolver.solve(action, agent);
-      } catch (ActionException e) {
-        L.finer(String.format("Ignoring illegal action %s due to %s", action.getClass().getSimpleName(), e));
-        counters.get(EngineSnapshot.CounterType.ILLEGAL_ACTION).incrementAndGet();
-      } catch (RuntimeException e) {
-        L.warning(String.format("Ignoring action %s throwing exception: %s", action.getClass().getSimpleName(), e));
-        counters.get(EngineSnapshot.CounterType.ILLEGAL_ACTION).incrementAndGet();
+        deferringPerformer = futurePerformer.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        throw e;
       }
+      lastTickPerformedActions.addAll(deferringPerformer.outcomes);
+      times.get(EngineSnapshot.TimeType.PERFORM).add(deferringPerformer.performNanoTime / 1000000000d);
     }
-    ActionOutcome<A, O> outcome = new ActionOutcome<>(agent, action, o == null ? Optional.empty() : Optional.of(o));
-    lastTickPerformedActions.add(outcome);
-    times.get(EngineSnapshot.TimeType.PERFORM).add(Duration.between(performStartingInstant, Instant.now())
-        .toNanos() / 1000000000d);
-    return outcome;
   }
 
   protected final <A extends Action<O>, O> void registerActionSolver(
@@ -222,6 +582,13 @@ public abstract class AbstractEngine implements Engine, Profiled {
     actionSolvers.put(actionClass, actionSolver);
   }
 
+  protected final <A extends ReadOnlyAction<O>, O> void registerBatchActionSolver(
+      Class<A> actionClass,
+      BatchActionSolver<A, O> batchActionSolver
+  ) {
+    batchActionSolvers.put(actionClass, batchActionSolver);
+  }
+
   protected void registerActionSolvers() {
     registerActionSolver(AddAgent.class, this::addAgent);
     registerActionSolver(AttractAndLinkAnchor.class, this::attractAndLinkAnchor);
@@ -251,29 +618,118 @@ public abstract class AbstractEngine implements Engine, Profiled {
     return t.get();
   }
 
+  @Override
+  public boolean isDiverged() {
+    return counters.get(EngineSnapshot.CounterType.DIVERGED_TICK).get() > 0;
+  }
+
+  @Override
+  public boolean isTimedOut() {
+    //wall time is updated at each tick, hence checking it is cheap
+    return times.get(EngineSnapshot.TimeType.WALL).get() > wallTimeBudget;
+  }
+
+  @Override
+  public void reset() {
+    t.set(0d);
+    bodies.clear();
+    agentPairs.clear();
+    deferredActions.clear();
+    //snapshots may still hold a view of the list: replace it rather than clearing it
+    lastTickPerformedActions = new ArrayList<>();
+    lastNFCMessages = new HashSpatialMap<>(configuration.nfcDistanceRange);
+    times.values().forEach(v -> v.set(0d));
+    counters.values().forEach(v -> v.set(0));
+    Arrays.stream(indexedActionClasses).forEach(c -> {
+      c.stats().reset();
+      c.nestedStats().reset();
+    });
+    startingNanoTime = System.nanoTime();
+    recordingOutcomes = snapshotPolicy.isDue(1);
+  }
+
+  @Override
+  public void setActExecutor(Executor actExecutor) {
+    this.actExecutor = actExecutor;
+  }
+
+  @Override
+  public void setControlPeriod(int controlPeriod) {
+    if (controlPeriod < 1) {
+      throw new IllegalArgumentException("Control period must be at least 1: %d found".formatted(controlPeriod));
+    }
+    this.controlPeriod = controlPeriod;
+  }
+
+  @Override
+  public void setReadOnlyActionExecutor(Executor readOnlyActionExecutor) {
+    this.readOnlyActionExecutor = readOnlyActionExecutor;
+  }
+
+  @Override
+  public void setActionProfiling(boolean actionProfiling) {
+    this.actionProfiling = actionProfiling;
+  }
+
+  @Override
+  public void setWallTimeBudget(double wallTimeBudget) {
+    this.wallTimeBudget = wallTimeBudget;
+  }
+
+  @Override
+  public SnapshotPolicy getSnapshotPolicy() {
+    return snapshotPolicy;
+  }
+
+  @Override
+  public void setSnapshotPolicy(SnapshotPolicy snapshotPolicy) {
+    this.snapshotPolicy = snapshotPolicy;
+    recordingOutcomes = snapshotPolicy.isDue(counters.get(EngineSnapshot.CounterType.TICK).get() + 1);
+  }
+
   @Override
   public Snapshot tick() {
-    Instant tickStartingInstant = Instant.now();
-    newNFCMessages = new HashSpatialMap<>(configuration.nfcDistanceRange);
-    counters.get(EngineSnapshot.CounterType.TICK).incrementAndGet();
-    for (int i = 0; i < agentPairs.size(); i++) {
-      List<ActionOutcome<?, ?>> outcomes = new ArrayList<>();
-      for (Action<?> action : agentPairs.get(i).first().act(t.get(), agentPairs.get(i).second())) {
-        outcomes.add(perform(action, agentPairs.get(i).first()));
+    long tickStartingNanoTime = System.nanoTime();
+    int nOfTicks = counters.get(EngineSnapshot.CounterType.TICK).incrementAndGet();
+    recordingOutcomes = snapshotPolicy.isDue(nOfTicks);
+    //between control ticks, agents do not act: actuations and NFC messages of the last control tick hold
+    if ((nOfTicks - 1) % controlPeriod == 0) {
+      newNFCMessages = new HashSpatialMap<>(configuration.nfcDistanceRange);
+      int nOfActedAgents = 0;
+      if (actExecutor != null && agentPairs.size() > 1) {
+        nOfActedAgents = parallelActAndPerform();
+      }
+      //agents added while performing actions act after the others, as in the serial case
+      for (int i = nOfActedAgents; i < agentPairs.size(); i++) {
+        performAgentActions(i, agentPairs.get(i).first().act(t.get(), agentPairs.get(i).second()));
+      }
+      //deferred senses see the state before the step and the same messages of the serial case
+      if (!deferredActions.isEmpty()) {
+        performDeferredActions();
       }
-      Pair<Agent, List<ActionOutcome<?, ?>>> pair = new Pair<>(agentPairs.get(i).first(), outcomes);
-      agentPairs.set(i, pair);
+      lastNFCMessages = newNFCMessages;
     }
-    lastNFCMessages = newNFCMessages;
-    Instant innerTickStartingInstant = Instant.now();
+    long innerTickStartingNanoTime = System.nanoTime();
     double newT = innerTick();
     t.set(newT);
-    times.get(EngineSnapshot.TimeType.INNER_TICK).add(Duration.between(innerTickStartingInstant, Instant.now())
-        .toNanos() / 1000000000d);
-    times.get(EngineSnapshot.TimeType.TICK).add(Duration.between(tickStartingInstant, Instant.now())
-        .toNanos() / 1000000000d);
-    times.get(EngineSnapshot.TimeType.WALL).set(Duration.between(startingInstant, Instant.now()).toMillis() / 1000d);
+    if (!isHealthy()) {
+      counters.get(EngineSnapshot.CounterType.DIVERGED_TICK).incrementAndGet();
+    }
+    long tickEndingNanoTime = System.nanoTime();
+    times.get(EngineSnapshot.TimeType.INNER_TICK).add((tickEndingNanoTime - innerTickStartingNanoTime) / 1000000000d);
+    times.get(EngineSnapshot.TimeType.TICK).add((tickEndingNanoTime - tickStartingNanoTime) / 1000000000d);
+    times.get(EngineSnapshot.TimeType.WALL).set((tickEndingNanoTime - startingNanoTime) / 1000000000d);
     times.get(EngineSnapshot.TimeType.ENVIRONMENT).set(t.get());
+    //actions performed between this and the next tick go to the next snapshot
+    boolean snapshotDue = snapshotPolicy.isDue(nOfTicks);
+    recordingOutcomes = snapshotPolicy.isDue(nOfTicks + 1);
+    if (!snapshotDue) {
+      lastTickPerformedActions.clear();
+      return null;
+    }
+    if (snapshotPolicy.mode().equals(SnapshotPolicy.Mode.LAZY)) {
+      return lazySnapshot();
+    }
     EngineSnapshot snapshot = new EngineSnapshot(
         t.get(),
         List.copyOf(getBodies()),
@@ -285,17 +741,46 @@ public abstract class AbstractEngine implements Engine, Profiled {
             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)),
         counters.entrySet().stream()
             .map(e -> Map.entry(e.getKey(), e.getValue().get()))
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)),
+        actionProfiles(false),
+        actionProfiles(true)
     );
     lastTickPerformedActions.clear();
     return snapshot;
   }
 
+  private EngineSnapshot lazySnapshot() {
+    //keep references to the things that are replaced at each tick, copy the lists of bodies and agents, which later
+    // ticks may change, and defer the rest
+    List<ActionOutcome<?, ?>> actionOutcomes = Collections.unmodifiableList(lastTickPerformedActions);
+    lastTickPerformedActions = new ArrayList<>();
+    SpatialMap<NFCMessage> nfcMessages = lastNFCMessages;
+    double[] timeValues = new double[EngineSnapshot.TimeType.values().length];
+    times.forEach((k, v) -> timeValues[k.ordinal()] = v.get());
+    int[] counterValues = new int[EngineSnapshot.CounterType.values().length];
+    counters.forEach((k, v) -> counterValues[k.ordinal()] = v.get());
+    return new EngineSnapshot(
+        t.get(),
+        List.copyOf(getBodies()),
+        agentPairs.stream().map(Pair::first).toList(),
+        actionOutcomes,
+        new LazyCollection<>(nfcMessages::all),
+        new LazyMap<>(() -> Arrays.stream(EngineSnapshot.TimeType.values())
+            .collect(Collectors.toMap(k -> k, k -> timeValues[k.ordinal()]))),
+        new LazyMap<>(() -> Arrays.stream(EngineSnapshot.CounterType.values())
+            .collect(Collectors.toMap(k -> k, k -> counterValues[k.ordinal()]))),
+        actionProfiles(false),
+        actionProfiles(true)
+    );
+  }
+
   @Override
   public Map<String, Number> values() {
     return Stream.of(
             times.entrySet().stream().map(e -> Map.entry("time_" + e.getKey(), e.getValue().get())),
-            counters.entrySet().stream().map(e -> Map.entry("counter_" + e.getKey(), e.getValue().get()))
+            counters.entrySet().stream().map(e -> Map.entry("counter_" + e.getKey(), e.getValue().get())),
+            actionProfileValues("action_", actionProfiles(false)),
+            actionProfileValues("nested_action_", actionProfiles(true))
         ).flatMap(m -> m)
         .map(e -> Map.entry(e.getKey().toLowerCase(), e.getValue()))
         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
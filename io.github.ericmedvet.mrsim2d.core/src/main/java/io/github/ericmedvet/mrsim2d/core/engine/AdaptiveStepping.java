@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.engine;
+
+/**
+ * Says how an {@link Engine} may split a tick in physics steps. Each tick is advanced with one or more steps of equal
+ * duration obtained by halving the tick duration up to {@code maxHalvings} times: steps are halved after a step whose
+ * estimated error reaches {@code tolerance} (in m) or which starts new contacts, and doubled back, at the next tick,
+ * after a tick whose steps were all well below the tolerance. Steps never exceed the tick duration, hence snapshots and
+ * time are still reported on a regular grid and agents act at every tick. Steps are never rolled back: a step with a
+ * large error only makes the next ones shorter.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public record AdaptiveStepping(double tolerance, int maxHalvings) {
+
+  public final static int MAX_HALVINGS = 10;
+  public final static AdaptiveStepping DEFAULT = new AdaptiveStepping(0.005, 3);
+  public final static AdaptiveStepping DISABLED = new AdaptiveStepping(Double.POSITIVE_INFINITY, 0);
+
+  public AdaptiveStepping {
+    if (tolerance < 0 || maxHalvings < 0 || maxHalvings > MAX_HALVINGS) {
+      throw new IllegalArgumentException(
+          "Wrong parameters: tolerance=%f must be non negative, maxHalvings=%d must be in [0,%d]".formatted(
+              tolerance,
+              maxHalvings,
+              MAX_HALVINGS
+          )
+      );
+    }
+  }
+
+  public boolean isEnabled() {
+    return maxHalvings > 0;
+  }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.engine;
+
+/**
+ * Says how an {@link Engine} finds the colliding pairs of bodies: the broadphase prunes the pairs whose (possibly
+ * expanded by {@code aabbExpansion}) bounding boxes do not overlap, the narrowphase tests the remaining ones on the
+ * actual shapes. Dynamic AABB trees fit scenes with few bodies over a large area (e.g., one agent on a long terrain),
+ * sweep-and-prune fits dense scenes with many bodies moving slowly (e.g., piles of agents).
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public record CollisionPipeline(Broadphase broadphase, Narrowphase narrowphase, double aabbExpansion) {
+
+  public final static CollisionPipeline DEFAULT = new CollisionPipeline(
+      Broadphase.DYNAMIC_AABB_TREE,
+      Narrowphase.GJK,
+      0.2
+  );
+
+  public CollisionPipeline {
+    if (aabbExpansion < 0) {
+      throw new IllegalArgumentException("AABB expansion must be non negative: %f found".formatted(aabbExpansion));
+    }
+  }
+
+  public enum Broadphase {DYNAMIC_AABB_TREE, SWEEP_AND_PRUNE}
+
+  public enum Narrowphase {GJK, SAT}
+
+}
@@ -18,8 +18,91 @@ package io.github.ericmedvet.mrsim2d.core.engine;
 
 import io.github.ericmedvet.mrsim2d.core.Environment;
 
+import java.util.concurrent.Executor;
+
 /**
  * @author "Eric Medvet" on 2022/07/07 for 2dmrsim
  */
 public interface Engine extends Environment {
+  SnapshotPolicy getSnapshotPolicy();
+
+  /**
+   * Returns true if the simulation diverged, numerically, in at least one tick since the start or the last reset.
+   */
+  boolean isDiverged();
+
+  /**
+   * Returns true if the wall time elapsed since the start or the last reset, as of the last tick, exceeds the budget.
+   */
+  boolean isTimedOut();
+
+  /**
+   * Brings the engine back to {@code t=0}, without agents and bodies, with zeroed counters and times: runs on the reset
+   * engine give the same results as on a new engine with the same settings. Engines may keep internally and reuse the
+   * static bodies, in order to make the reset engine cheaper to set up than a new one.
+   */
+  void reset();
+
+  /**
+   * Sets the executor on which the agents {@code act()} in parallel; if {@code null}, agents act serially. In both
+   * cases, the resulting actions are performed on the thread calling {@code tick()}, in agent order.
+   */
+  void setActExecutor(Executor actExecutor);
+
+  void setActionProfiling(boolean actionProfiling);
+
+  /**
+   * Sets how ticks may be split in shorter physics steps. Ticks keep their duration, hence snapshots are still taken
+   * on a regular time grid.
+   */
+  void setAdaptiveStepping(AdaptiveStepping adaptiveStepping);
+
+  /**
+   * Sets how collisions are detected. Since it affects how bodies are indexed, it should be set before the first body
+   * is created.
+   */
+  void setCollisionPipeline(CollisionPipeline collisionPipeline);
+
+  /**
+   * Sets the number of ticks between consecutive {@code act()} of the agents: in the ticks in between, agents neither
+   * act nor sense, and the last actuation is held.
+   */
+  void setControlPeriod(int controlPeriod);
+
+  /**
+   * Sets the trade-off between speed and accuracy of the simulation, by adjusting the settings the engine has been
+   * configured with. Since it may change the time step, it should be set before the first tick.
+   */
+  void setFidelityProfile(FidelityProfile fidelityProfile);
+
+  /**
+   * Sets the executor on which the {@link io.github.ericmedvet.mrsim2d.core.ReadOnlyAction}s of the agents are
+   * performed in parallel, once all the agents acted and before the inner tick; if {@code null}, all actions are
+   * performed serially, in the order they are returned by the agents. In both cases, read-only actions see the state
+   * before the inner tick, but, when performed in parallel, they also see the effects of the other actions of the same
+   * tick, including those of the agents acting later.
+   */
+  void setReadOnlyActionExecutor(Executor readOnlyActionExecutor);
+
+  /**
+   * Sets whether rigid bodies rigidly linked to each other are simulated as a single compound body. Groups are
+   * fused at the tick following the creation of the links and split when one of their parts or links is moved or
+   * removed.
+   */
+  void setRigidBodyFusion(boolean rigidBodyFusion);
+
+  /**
+   * Sets when bodies may sleep. Since it may change the outcome of a simulation, it should be set before the first
+   * tick.
+   */
+  void setSleepPolicy(SleepPolicy sleepPolicy);
+
+  void setSnapshotPolicy(SnapshotPolicy snapshotPolicy);
+
+  /**
+   * Sets the model of the voxels created from now on; voxels already created are not affected.
+   */
+  void setVoxelModel(VoxelModel voxelModel);
+
+  void setWallTimeBudget(double wallTimeBudget);
 }
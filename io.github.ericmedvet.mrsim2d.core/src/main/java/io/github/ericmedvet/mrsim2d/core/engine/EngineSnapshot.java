@@ -35,10 +35,27 @@ public record EngineSnapshot(
     Collection<ActionOutcome<?, ?>> actionOutcomes,
     Collection<NFCMessage> nfcMessages,
     Map<TimeType, Double> times,
-    Map<CounterType, Integer> counters
+    Map<CounterType, Integer> counters,
+    Map<Class<?>, ActionProfile> actionProfiles,
+    Map<Class<?>, ActionProfile> nestedActionProfiles
 ) implements Snapshot {
-  public enum CounterType {TICK, ACTION, ILLEGAL_ACTION, UNSUPPORTED_ACTION}
+  public enum CounterType {
+    TICK, ACTION, ILLEGAL_ACTION, UNSUPPORTED_ACTION, DIVERGED_TICK, BROADPHASE_PAIR, CONTACT_PAIR, SLEEPING_BODY,
+    PHYSICS_STEP
+  }
 
   public enum TimeType {ENVIRONMENT, WALL, TICK, INNER_TICK, PERFORM}
 
+  /**
+   * Cumulative profile of the actions of one class. The {@code time} is in seconds; the {@code i}-th element of
+   * {@code timeHistogram} counts the actions whose performing took between 2^i (included) and 2^(i+1) ns.
+   */
+  public record ActionProfile(int count, double time, int[] timeHistogram) {
+    public static final int N_OF_TIME_BINS = 32;
+
+    public static int timeBin(long nanoTime) {
+      return Math.min(N_OF_TIME_BINS - 1, 63 - Long.numberOfLeadingZeros(Math.max(1L, nanoTime)));
+    }
+  }
+
 }
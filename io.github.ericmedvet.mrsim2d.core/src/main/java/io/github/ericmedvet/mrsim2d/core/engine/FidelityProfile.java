@@ -0,0 +1,26 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.engine;
+
+/**
+ * Trade-off between simulation speed and accuracy, interpreted by each {@link Engine} in terms of its own settings
+ * (e.g., time step, solver iterations, warm starting, continuous collision detection). {@link #BALANCED} is the
+ * default one.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public enum FidelityProfile {FAST, BALANCED, ACCURATE}
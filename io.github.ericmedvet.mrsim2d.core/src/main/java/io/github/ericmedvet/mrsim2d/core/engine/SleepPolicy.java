@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.engine;
+
+/**
+ * Says when an {@link Engine} may put a body to sleep, i.e., stop stepping it: when its linear and angular speeds stay
+ * below {@code maxLinearSpeed} and {@code maxAngularSpeed} for at least {@code minTime} seconds. Sleeping bodies are
+ * woken when touched by awake bodies or when actuated with a different value; bodies actuated with a constant value
+ * may hence settle.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public record SleepPolicy(double maxLinearSpeed, double maxAngularSpeed, double minTime) {
+
+  //constant expressions, for being usable as defaults of annotated builder parameters
+  public final static double DEFAULT_MAX_LINEAR_SPEED = 0.01;
+  public final static double DEFAULT_MAX_ANGULAR_SPEED = 2d * Math.PI / 180d;
+  public final static double DEFAULT_MIN_TIME = 0.5;
+  public final static SleepPolicy DEFAULT = new SleepPolicy(
+      DEFAULT_MAX_LINEAR_SPEED,
+      DEFAULT_MAX_ANGULAR_SPEED,
+      DEFAULT_MIN_TIME
+  );
+  public final static SleepPolicy NEVER = new SleepPolicy(0, 0, Double.POSITIVE_INFINITY);
+
+  public SleepPolicy {
+    if (maxLinearSpeed < 0 || maxAngularSpeed < 0 || minTime < 0) {
+      throw new IllegalArgumentException(
+          "Thresholds must be non negative: maxLinearSpeed=%f, maxAngularSpeed=%f, minTime=%f found".formatted(
+              maxLinearSpeed,
+              maxAngularSpeed,
+              minTime
+          )
+      );
+    }
+  }
+
+  public boolean isEnabled() {
+    return Double.isFinite(minTime);
+  }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.engine;
+
+/**
+ * Says which ticks of an {@link Engine} produce a snapshot and how: lazy snapshots take the bodies and agents of their
+ * tick, but materialize the rest of their content only when accessed, and are meant to be consumed before the next
+ * tick, hence they are not suitable for consumers that buffer snapshots, like viewers. On ticks with no snapshot, {@link Engine#tick()} returns {@code null}.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public record SnapshotPolicy(Mode mode, int period) {
+
+  public final static SnapshotPolicy EAGER = new SnapshotPolicy(Mode.EAGER, 1);
+  public final static SnapshotPolicy LAZY = new SnapshotPolicy(Mode.LAZY, 1);
+  public final static SnapshotPolicy NONE = new SnapshotPolicy(Mode.NONE, 1);
+
+  public SnapshotPolicy {
+    if (period < 1) {
+      throw new IllegalArgumentException("Period must be at least 1: %d found".formatted(period));
+    }
+  }
+
+  public enum Mode {NONE, EAGER, LAZY}
+
+  public boolean isDue(int nOfTicks) {
+    return !mode.equals(Mode.NONE) && nOfTicks % period == 0;
+  }
+
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.engine;
+
+/**
+ * Model of the soft voxels an {@link Engine} creates upon {@link io.github.ericmedvet.mrsim2d.core.actions.CreateVoxel}:
+ * {@link #LIGHTWEIGHT} voxels are cheaper to simulate than {@link #STANDARD} ones, since they are made of fewer
+ * bodies and constraints, at the cost of a slightly different response to actuation.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public enum VoxelModel {STANDARD, LIGHTWEIGHT}
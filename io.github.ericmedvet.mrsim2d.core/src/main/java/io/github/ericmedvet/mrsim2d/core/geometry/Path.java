@@ -28,6 +28,71 @@ public record Path(Point[] points) {
     this(new Point[]{point});
   }
 
+  /**
+   * A mutable counterpart of {@link Path}, whose appends take amortized constant time. Useful for paths built with
+   * many steps, for which the chains of {@link Path#moveBy(Point)} take quadratic time.
+   */
+  public static class Builder {
+    private final static int INITIAL_CAPACITY = 16;
+    private Point[] points;
+    private int size;
+
+    public Builder(Point point) {
+      points = new Point[INITIAL_CAPACITY];
+      points[0] = point;
+      size = 1;
+    }
+
+    public Builder(Path path) {
+      points = Arrays.copyOf(path.points, Math.max(INITIAL_CAPACITY, 2 * path.points.length));
+      size = path.points.length;
+    }
+
+    public Builder add(Point point) {
+      if (size == points.length) {
+        points = Arrays.copyOf(points, 2 * points.length);
+      }
+      points[size] = point;
+      size = size + 1;
+      return this;
+    }
+
+    public Builder add(double x, double y) {
+      return add(new Point(x, y));
+    }
+
+    public Builder add(Path other) {
+      for (Point p : other.points) {
+        add(p);
+      }
+      return this;
+    }
+
+    public Path build() {
+      return new Path(Arrays.copyOf(points, size));
+    }
+
+    public Point last() {
+      return points[size - 1];
+    }
+
+    public Builder moveBy(double x, double y) {
+      return moveBy(new Point(x, y));
+    }
+
+    public Builder moveBy(Point point) {
+      return add(last().sum(point));
+    }
+
+    public Builder moveBy(Path other) {
+      Point last = last();
+      for (Point p : other.points) {
+        add(p.sum(last));
+      }
+      return this;
+    }
+  }
+
   public Path add(Point point) {
     Point[] newPoints = new Point[points().length + 1];
     System.arraycopy(points, 0, newPoints, 0, points.length);
@@ -40,11 +105,7 @@ public record Path(Point[] points) {
   }
 
   public Path add(Path other) {
-    Path path = this;
-    for (Point p : other.points) {
-      path = path.add(p);
-    }
-    return path;
+    return new Builder(this).add(other).build();
   }
 
   public Path moveBy(double x, double y) {
@@ -56,11 +117,7 @@ public record Path(Point[] points) {
   }
 
   public Path moveBy(Path other) {
-    Path path = this;
-    for (Point p : other.points) {
-      path = path.add(p.sum(points[points.length - 1]));
-    }
-    return path;
+    return new Builder(this).moveBy(other).build();
   }
 
   public Poly toPoly() {
@@ -17,30 +17,168 @@
 package io.github.ericmedvet.mrsim2d.core.geometry;
 
 import io.github.ericmedvet.jsdynsym.core.DoubleRange;
-import io.github.ericmedvet.mrsim2d.core.util.PolyUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
-public record Terrain(Poly poly, DoubleRange withinBordersXRange) {
+/**
+ * A terrain, i.e., a polygon whose upper side is the ground. On building, a height index of the upper envelope of
+ * the polygon is computed, with a single sweep over the sides sorted by abscissa: the envelope is linear between
+ * consecutive distinct vertex abscissas, hence heights are found with a binary search on the abscissas and max heights
+ * in a range with a sparse table on the vertex heights.
+ */
+public final class Terrain {
+
+  private final Poly poly;
+  private final DoubleRange withinBordersXRange;
+  private final double[] xs;
+  private final double[] ys;
+  private final double[] leftYs;
+  private final double[] rightYs;
+  private final double[][] maxYsTable;
+
+  public Terrain(Poly poly, DoubleRange withinBordersXRange) {
+    this.poly = poly;
+    this.withinBordersXRange = withinBordersXRange;
+    xs = Arrays.stream(poly.vertexes()).mapToDouble(Point::x).sorted().distinct().toArray();
+    ys = new double[xs.length];
+    leftYs = new double[Math.max(0, xs.length - 1)];
+    rightYs = new double[leftYs.length];
+    Arrays.fill(ys, Double.NaN);
+    Arrays.fill(leftYs, Double.NaN);
+    Arrays.fill(rightYs, Double.NaN);
+    //sweep the intervals between consecutive abscissas, keeping the sides spanning the current one
+    List<Segment> sides = new ArrayList<>();
+    for (Segment side : poly.sides()) {
+      if (side.p1().x() == side.p2().x()) {
+        int i = Arrays.binarySearch(xs, side.p1().x());
+        ys[i] = nanMax(ys[i], Math.max(side.p1().y(), side.p2().y()));
+      } else {
+        sides.add(side);
+      }
+    }
+    sides.sort(Comparator.comparingDouble(side -> Math.min(side.p1().x(), side.p2().x())));
+    List<Segment> activeSides = new ArrayList<>();
+    int nextSideIndex = 0;
+    for (int i = 0; i < leftYs.length; i++) {
+      int index = i;
+      activeSides.removeIf(side -> Math.max(side.p1().x(), side.p2().x()) <= xs[index]);
+      while (nextSideIndex < sides.size()
+          && Math.min(sides.get(nextSideIndex).p1().x(), sides.get(nextSideIndex).p2().x()) <= xs[i]) {
+        activeSides.add(sides.get(nextSideIndex));
+        nextSideIndex = nextSideIndex + 1;
+      }
+      //the sides do not cross, hence the side on the envelope is the same on the whole interval
+      double midX = (xs[i] + xs[i + 1]) / 2d;
+      Segment top = null;
+      double topY = Double.NaN;
+      for (Segment side : activeSides) {
+        double y = lineYAtX(side, midX);
+        if (top == null || y > topY) {
+          top = side;
+          topY = y;
+        }
+      }
+      if (top != null) {
+        leftYs[i] = lineYAtX(top, xs[i]);
+        rightYs[i] = lineYAtX(top, xs[i + 1]);
+        ys[i] = nanMax(ys[i], leftYs[i]);
+        ys[i + 1] = nanMax(ys[i + 1], rightYs[i]);
+      }
+    }
+    int nOfLevels = xs.length == 0 ? 0 : (31 - Integer.numberOfLeadingZeros(xs.length) + 1);
+    maxYsTable = new double[nOfLevels][];
+    if (nOfLevels > 0) {
+      maxYsTable[0] = ys;
+    }
+    for (int k = 1; k < nOfLevels; k++) {
+      int halfWidth = 1 << (k - 1);
+      maxYsTable[k] = new double[xs.length - (1 << k) + 1];
+      for (int i = 0; i < maxYsTable[k].length; i++) {
+        maxYsTable[k][i] = nanMax(maxYsTable[k - 1][i], maxYsTable[k - 1][i + halfWidth]);
+      }
+    }
+  }
+
+  private static double lineYAtX(Segment s, double x) {
+    return s.p1().y() + (s.p2().y() - s.p1().y()) * (x - s.p1().x()) / (s.p2().x() - s.p1().x());
+  }
+
+  private static double nanMax(double v1, double v2) {
+    if (Double.isNaN(v1)) {
+      return v2;
+    }
+    if (Double.isNaN(v2)) {
+      return v1;
+    }
+    return Math.max(v1, v2);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    Terrain terrain = (Terrain) o;
+    return poly.equals(terrain.poly) && withinBordersXRange.equals(terrain.withinBordersXRange);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(poly, withinBordersXRange);
+  }
+
+  /**
+   * Returns the height of the terrain at {@code x}, or {@code NaN} if {@code x} is outside the terrain.
+   */
+  public double maxHeightAt(double x) {
+    if (xs.length == 0 || x < xs[0] || x > xs[xs.length - 1]) {
+      return Double.NaN;
+    }
+    int i = Arrays.binarySearch(xs, x);
+    if (i >= 0) {
+      return ys[i];
+    }
+    i = -i - 2;
+    return leftYs[i] + (rightYs[i] - leftYs[i]) * (x - xs[i]) / (xs[i + 1] - xs[i]);
+  }
 
   public double maxHeightAt(DoubleRange xRange) {
-    List<Double> xs = new ArrayList<>(
-        Arrays.stream(poly().vertexes())
-            .filter(v -> v.x() >= xRange.min() && v.x() <= xRange.max())
-            .map(Point::x)
-            .toList()
-    );
-    xs.add(xRange.min());
-    xs.add(xRange.max());
-    return xs.stream().distinct().mapToDouble(x -> PolyUtils.maxYAtX(poly, x))
-        .filter(d -> !Double.isNaN(d))
-        .max()
-        .orElseThrow(() -> new IllegalArgumentException("Cannot find a terrain max y in range %.1f, %.1f.".formatted(
-                xRange.min(),
-                xRange.max()
-            ))
-        );
+    double maxY = nanMax(maxHeightAt(xRange.min()), maxHeightAt(xRange.max()));
+    //vertexes in the range
+    int from = Arrays.binarySearch(xs, xRange.min());
+    from = from >= 0 ? from : (-from - 1);
+    int to = Arrays.binarySearch(xs, xRange.max());
+    to = to >= 0 ? (to + 1) : (-to - 1);
+    if (from < to) {
+      int k = 31 - Integer.numberOfLeadingZeros(to - from);
+      maxY = nanMax(maxY, nanMax(maxYsTable[k][from], maxYsTable[k][to - (1 << k)]));
+    }
+    if (Double.isNaN(maxY)) {
+      throw new IllegalArgumentException("Cannot find a terrain max y in range %.1f, %.1f.".formatted(
+          xRange.min(),
+          xRange.max()
+      ));
+    }
+    return maxY;
+  }
+
+  public Poly poly() {
+    return poly;
+  }
+
+  @Override
+  public String toString() {
+    return "Terrain[poly=" + poly + ", withinBordersXRange=" + withinBordersXRange + ']';
+  }
+
+  public DoubleRange withinBordersXRange() {
+    return withinBordersXRange;
   }
 }
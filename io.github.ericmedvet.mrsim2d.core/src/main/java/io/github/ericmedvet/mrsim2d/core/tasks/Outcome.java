@@ -1,32 +1,421 @@
 package io.github.ericmedvet.mrsim2d.core.tasks;
 
 import io.github.ericmedvet.jsdynsym.core.DoubleRange;
+import io.github.ericmedvet.mrsim2d.core.geometry.BoundingBox;
 import io.github.ericmedvet.mrsim2d.core.geometry.Point;
 import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.SortedMap;
+import java.util.*;
 
 public class Outcome {
 
-  private final static int N_OF_CACHED_SUB_OUTCOMES = 3;
-  private final SortedMap<Double, Observation> observations;
-  private final Map<Key, Double> metricMap;
+  private final static int N_OF_CACHED_SUB_OUTCOMES = 16;
+  private final Recorder recorder;
+  private final int from;
+  private final int to;
   private final Map<DoubleRange, Outcome> subOutcomes;
+  private final Termination termination;
+  private final double realTimeFactor;
+
+  public Outcome(SortedMap<Double, Observation> observations, Termination termination, double realTimeFactor) {
+    this(Recorder.of(observations), 0, -1, termination, realTimeFactor);
+  }
 
   public Outcome(SortedMap<Double, Observation> observations) {
-    this.observations = observations;
-    metricMap = new HashMap<>();
-    subOutcomes = new HashMap<>();
+    this(observations, Termination.COMPLETED, Double.NaN);
+  }
+
+  //a negative to means up to the last recorded observation, also if added after building this outcome
+  private Outcome(Recorder recorder, int from, int to, Termination termination, double realTimeFactor) {
+    this.recorder = recorder;
+    this.from = from;
+    this.to = to;
+    this.termination = termination;
+    this.realTimeFactor = realTimeFactor;
+    subOutcomes = new LinkedHashMap<>(N_OF_CACHED_SUB_OUTCOMES, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<DoubleRange, Outcome> eldest) {
+        return size() > N_OF_CACHED_SUB_OUTCOMES;
+      }
+    };
   }
 
+  public enum Termination {COMPLETED, STOP_CONDITION, DIVERGENCE, TIMEOUT}
+
   private enum Aggregate {INITIAL, FINAL, AVERAGE, MIN, MAX}
+
   private enum Metric {X, Y, TERRAIN_H, BB_W, BB_H, BB_AREA}
 
   private enum Subject {FIRST, ALL}
 
-  private record Key(Metric metric, Aggregate aggregate, Subject subject) {}
+  /**
+   * Incrementally builds an {@link Outcome} from the observations of a task run. The statistics of each metric are
+   * updated on the fly, hence taking constant memory. If requested, the trajectories are also stored, since they are
+   * needed for computing the outcome on a sub-range of time (see {@link Outcome#subOutcome(DoubleRange)}): they are
+   * kept in primitive arrays, one for the times and, for each agent, one for its presence, one for the centers, one
+   * for the bounding boxes, and one for the terrain heights.
+   */
+  public static class Recorder {
+    private final static int N_OF_METRICS = Metric.values().length * Subject.values().length;
+    private final static int DEFAULT_CAPACITY = 1024;
+    private final boolean storingObservations;
+    private final double duration;
+    private final double[] initials;
+    private final double[] finals;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+    private final List<AgentTrajectory> agentTrajectories;
+    private final MetricIndex[] metricIndexes;
+    private double[] ts;
+    private int n;
+    private double firstT;
+    private double lastT;
+    private Observation lastObservation;
+
+    public Recorder(boolean storingObservations, double duration) {
+      this.storingObservations = storingObservations;
+      this.duration = duration;
+      initials = new double[N_OF_METRICS];
+      finals = new double[N_OF_METRICS];
+      sums = new double[N_OF_METRICS];
+      mins = new double[N_OF_METRICS];
+      maxs = new double[N_OF_METRICS];
+      Arrays.fill(mins, Double.POSITIVE_INFINITY);
+      Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+      agentTrajectories = new ArrayList<>();
+      metricIndexes = new MetricIndex[N_OF_METRICS];
+      ts = new double[0];
+    }
+
+    public Recorder(boolean storingObservations) {
+      this(storingObservations, Double.NaN);
+    }
+
+    //presence is kept explicitly, since any value, including NaN for the terrain height, may be observed
+    private static class AgentTrajectory {
+      private boolean[] presences;
+      private double[] centers;
+      private double[] boundingBoxes;
+      private double[] terrainHeights;
+
+      private AgentTrajectory(int capacity) {
+        presences = new boolean[capacity];
+        centers = new double[2 * capacity];
+        boundingBoxes = new double[4 * capacity];
+        terrainHeights = new double[capacity];
+      }
+
+      private void grow(int capacity) {
+        presences = Arrays.copyOf(presences, capacity);
+        centers = Arrays.copyOf(centers, 2 * capacity);
+        boundingBoxes = Arrays.copyOf(boundingBoxes, 4 * capacity);
+        terrainHeights = Arrays.copyOf(terrainHeights, capacity);
+      }
+
+      private boolean isPresent(int i) {
+        return presences[i];
+      }
+    }
+
+    /**
+     * Supports the computation of the average, min, and max of a metric on any range of stored observations: the
+     * average through prefix sums, in O(1); min and max through sparse tables, in O(1). The structures are built lazily
+     * and extended when observations are added after the last query, in O(1) for the sums and O(log n) for the tables
+     * per added observation; their arrays grow as the stored observations do.
+     */
+    private class MetricIndex {
+      private final Metric metric;
+      private final Subject subject;
+      private double[] prefixSums;
+      private int nOfSummed;
+      private double[][] minTable;
+      private double[][] maxTable;
+      private int nOfTabled;
+
+      private MetricIndex(Metric metric, Subject subject) {
+        this.metric = metric;
+        this.subject = subject;
+        prefixSums = new double[1];
+      }
+
+      private static int log2(int v) {
+        return 31 - Integer.numberOfLeadingZeros(v);
+      }
+
+      private double max(int from, int to) {
+        updateTables();
+        int k = log2(to - from);
+        return Math.max(maxTable[k][from], maxTable[k][to - (1 << k)]);
+      }
+
+      private double min(int from, int to) {
+        updateTables();
+        int k = log2(to - from);
+        return Math.min(minTable[k][from], minTable[k][to - (1 << k)]);
+      }
+
+      private double sum(int from, int to) {
+        updateSums();
+        return prefixSums[to] - prefixSums[from];
+      }
+
+      private void updateSums() {
+        if (nOfSummed == n) {
+          return;
+        }
+        if (prefixSums.length < n + 1) {
+          prefixSums = Arrays.copyOf(prefixSums, ts.length + 1);
+        }
+        for (int i = nOfSummed; i < n; i++) {
+          prefixSums[i + 1] = prefixSums[i] + value(metric, subject, i);
+        }
+        nOfSummed = n;
+      }
+
+      private void updateTables() {
+        if (nOfTabled == n) {
+          return;
+        }
+        int nOfLevels = log2(ts.length) + 1;
+        if (minTable == null || minTable.length < nOfLevels || minTable[0].length < ts.length) {
+          double[][] newMinTable = new double[nOfLevels][];
+          double[][] newMaxTable = new double[nOfLevels][];
+          for (int k = 0; k < nOfLevels; k++) {
+            if (minTable != null && k < minTable.length) {
+              newMinTable[k] = Arrays.copyOf(minTable[k], ts.length);
+              newMaxTable[k] = k == 0 ? newMinTable[0] : Arrays.copyOf(maxTable[k], ts.length);
+            } else {
+              newMinTable[k] = new double[ts.length];
+              newMaxTable[k] = k == 0 ? newMinTable[0] : new double[ts.length];
+            }
+          }
+          minTable = newMinTable;
+          maxTable = newMaxTable;
+        }
+        //the i-th entry of level k covers [i,i+2^k): the m-th observation completes one entry per level
+        for (int m = nOfTabled; m < n; m++) {
+          minTable[0][m] = value(metric, subject, m);
+          for (int k = 1; (1 << k) <= m + 1; k++) {
+            int i = m + 1 - (1 << k);
+            int j = i + (1 << (k - 1));
+            minTable[k][i] = Math.min(minTable[k - 1][i], minTable[k - 1][j]);
+            maxTable[k][i] = Math.max(maxTable[k - 1][i], maxTable[k - 1][j]);
+          }
+        }
+        nOfTabled = n;
+      }
+    }
+
+    private static Recorder of(SortedMap<Double, Observation> observations) {
+      Recorder recorder = new Recorder(true, observations.isEmpty() ? Double.NaN : observations.lastKey());
+      observations.forEach(recorder::add);
+      return recorder;
+    }
+
+    private static int index(Metric metric, Subject subject) {
+      return metric.ordinal() * Subject.values().length + subject.ordinal();
+    }
+
+    //observations with no agents, e.g., before the first agent is added, are skipped, as no metric is defined on them
+    public void add(double t, Observation observation) {
+      if (observation.getAgents().isEmpty()) {
+        return;
+      }
+      for (Metric metric : Metric.values()) {
+        for (Subject subject : Subject.values()) {
+          int i = index(metric, subject);
+          double v = get(metric, subject, observation);
+          if (n == 0) {
+            initials[i] = v;
+          }
+          finals[i] = v;
+          sums[i] = sums[i] + v;
+          mins[i] = Math.min(mins[i], v);
+          maxs[i] = Math.max(maxs[i], v);
+        }
+      }
+      if (n == 0) {
+        firstT = t;
+      }
+      if (storingObservations) {
+        store(t, observation);
+      }
+      n = n + 1;
+      lastT = t;
+      lastObservation = observation;
+    }
+
+    private double aggregate(Aggregate aggregate, Metric metric, Subject subject) {
+      if (n == 0) {
+        return 0d;
+      }
+      int i = index(metric, subject);
+      return switch (aggregate) {
+        case INITIAL -> initials[i];
+        case FINAL -> finals[i];
+        case AVERAGE -> sums[i] / (double) n;
+        case MIN -> mins[i];
+        case MAX -> maxs[i];
+      };
+    }
+
+    private synchronized double aggregate(Aggregate aggregate, Metric metric, Subject subject, int from, int to) {
+      if (from >= to) {
+        return 0d;
+      }
+      return switch (aggregate) {
+        case INITIAL -> value(metric, subject, from);
+        case FINAL -> value(metric, subject, to - 1);
+        case AVERAGE -> metricIndex(metric, subject).sum(from, to) / (double) (to - from);
+        case MIN -> metricIndex(metric, subject).min(from, to);
+        case MAX -> metricIndex(metric, subject).max(from, to);
+      };
+    }
+
+    private int capacity() {
+      if (n == 0 && duration > 0 && firstT > 0) {
+        return (int) Math.ceil(duration / firstT) + 1;
+      }
+      return Math.max(DEFAULT_CAPACITY, 2 * ts.length);
+    }
+
+    //returns the index of the first stored observation in [from,to) with time not lower than t
+    private int indexOf(double t, int from, int to) {
+      int i = Arrays.binarySearch(ts, from, to, t);
+      if (i < 0) {
+        return -i - 1;
+      }
+      while (i > from && ts[i - 1] == t) {
+        i = i - 1;
+      }
+      return i;
+    }
+
+    private MetricIndex metricIndex(Metric metric, Subject subject) {
+      int i = index(metric, subject);
+      if (metricIndexes[i] == null) {
+        metricIndexes[i] = new MetricIndex(metric, subject);
+      }
+      return metricIndexes[i];
+    }
+
+    /**
+     * Returns a view of the outcome being recorded, that reflects the observations added afterwards.
+     */
+    public Outcome outcome() {
+      return outcome(Termination.COMPLETED, Double.NaN);
+    }
+
+    public Outcome outcome(Termination termination, double realTimeFactor) {
+      return new Outcome(this, 0, -1, termination, realTimeFactor);
+    }
+
+    private void store(double t, Observation observation) {
+      if (n == ts.length) {
+        int capacity = capacity();
+        ts = Arrays.copyOf(ts, capacity);
+        agentTrajectories.forEach(at -> at.grow(capacity));
+      }
+      ts[n] = t;
+      List<Point> centers = observation.getCenters();
+      List<BoundingBox> boundingBoxes = observation.getBoundingBoxes();
+      for (int j = 0; j < observation.getAgents().size(); j++) {
+        if (j == agentTrajectories.size()) {
+          agentTrajectories.add(new AgentTrajectory(ts.length));
+        }
+        AgentTrajectory at = agentTrajectories.get(j);
+        at.presences[n] = true;
+        at.centers[2 * n] = centers.get(j).x();
+        at.centers[2 * n + 1] = centers.get(j).y();
+        at.boundingBoxes[4 * n] = boundingBoxes.get(j).min().x();
+        at.boundingBoxes[4 * n + 1] = boundingBoxes.get(j).min().y();
+        at.boundingBoxes[4 * n + 2] = boundingBoxes.get(j).max().x();
+        at.boundingBoxes[4 * n + 3] = boundingBoxes.get(j).max().y();
+        at.terrainHeights[n] = observation.getAgents().get(j).terrainHeight();
+      }
+    }
+
+    private double value(Metric metric, Subject subject, int i) {
+      if (subject.equals(Subject.FIRST)) {
+        AgentTrajectory at = agentTrajectories.get(0);
+        return switch (metric) {
+          case X -> at.centers[2 * i];
+          case Y -> at.centers[2 * i + 1];
+          case TERRAIN_H -> at.centers[2 * i + 1] - at.terrainHeights[i];
+          case BB_W -> at.boundingBoxes[4 * i + 2] - at.boundingBoxes[4 * i];
+          case BB_H -> at.boundingBoxes[4 * i + 3] - at.boundingBoxes[4 * i + 1];
+          case BB_AREA -> boundingBox(at.boundingBoxes, i).area();
+        };
+      }
+      if (metric.equals(Metric.TERRAIN_H)) {
+        double sum = 0;
+        int count = 0;
+        for (AgentTrajectory at : agentTrajectories) {
+          if (at.isPresent(i)) {
+            sum = sum + at.centers[2 * i + 1] - at.terrainHeights[i];
+            count = count + 1;
+          }
+        }
+        return count == 0 ? 0d : (sum / (double) count);
+      }
+      double minX = Double.POSITIVE_INFINITY;
+      double minY = Double.POSITIVE_INFINITY;
+      double maxX = Double.NEGATIVE_INFINITY;
+      double maxY = Double.NEGATIVE_INFINITY;
+      for (AgentTrajectory at : agentTrajectories) {
+        if (at.isPresent(i)) {
+          minX = Math.min(minX, at.boundingBoxes[4 * i]);
+          minY = Math.min(minY, at.boundingBoxes[4 * i + 1]);
+          maxX = Math.max(maxX, at.boundingBoxes[4 * i + 2]);
+          maxY = Math.max(maxY, at.boundingBoxes[4 * i + 3]);
+        }
+      }
+      return switch (metric) {
+        case X -> (minX + maxX) / 2d;
+        case Y -> (minY + maxY) / 2d;
+        case BB_W -> maxX - minX;
+        case BB_H -> maxY - minY;
+        case BB_AREA -> new BoundingBox(new Point(minX, minY), new Point(maxX, maxY)).area();
+        case TERRAIN_H -> throw new IllegalStateException("Unexpected metric: %s".formatted(metric));
+      };
+    }
+
+    private static BoundingBox boundingBox(double[] boundingBoxes, int i) {
+      return new BoundingBox(
+          new Point(boundingBoxes[4 * i], boundingBoxes[4 * i + 1]),
+          new Point(boundingBoxes[4 * i + 2], boundingBoxes[4 * i + 3])
+      );
+    }
+  }
+
+  private static double get(Metric metric, Subject subject, Observation observation) {
+    return switch (metric) {
+      case X -> subject.equals(Subject.FIRST) ? observation.getFirstAgentCenter().x() : observation.getAllBoundingBox()
+          .center()
+          .x();
+      case Y -> subject.equals(Subject.FIRST) ? observation.getFirstAgentCenter().y() : observation.getAllBoundingBox()
+          .center()
+          .y();
+      case TERRAIN_H -> {
+        if (subject.equals(Subject.FIRST)) {
+          yield observation.getFirstAgentCenter().y() - observation.getAgents().get(0).terrainHeight();
+        } else {
+          yield observation.getAgents().stream()
+              .mapToDouble(a -> Point.average(
+                  a.polies().stream().map(Poly::center).toArray(Point[]::new)
+              ).y() - a.terrainHeight())
+              .average().orElse(0d);
+        }
+      }
+      case BB_AREA -> subject.equals(Subject.FIRST) ? observation.getFirstAgentBoundingBox()
+          .area() : observation.getAllBoundingBox().area();
+      case BB_W -> subject.equals(Subject.FIRST) ? observation.getFirstAgentBoundingBox()
+          .width() : observation.getAllBoundingBox().width();
+      case BB_H -> subject.equals(Subject.FIRST) ? observation.getFirstAgentBoundingBox()
+          .height() : observation.getAllBoundingBox().height();
+    };
+  }
 
   public double allAgentsAverageHeight() {
     return get(Aggregate.AVERAGE, Metric.BB_H, Subject.ALL);
@@ -53,7 +442,7 @@ public class Outcome {
   }
 
   public double duration() {
-    return observations.lastKey() - observations.firstKey();
+    return lastT() - firstT();
   }
 
   public double firstAgentAverageArea() {
@@ -73,63 +462,92 @@ public class Outcome {
   }
 
   private double get(Aggregate aggregate, Metric metric, Subject subject) {
-    Double value = metricMap.get(new Key(metric, aggregate, subject));
-    if (value == null) {
-      value = switch (aggregate) {
-        case FINAL -> get(metric, subject, observations.get(observations.lastKey()));
-        case INITIAL -> get(metric, subject, observations.get(observations.firstKey()));
-        case AVERAGE -> observations.values().stream().mapToDouble(o -> get(metric, subject, o)).average().orElse(0d);
-        case MIN -> observations.values().stream().mapToDouble(o -> get(metric, subject, o)).min().orElse(0d);
-        case MAX -> observations.values().stream().mapToDouble(o -> get(metric, subject, o)).max().orElse(0d);
-      };
-      metricMap.put(new Key(metric, aggregate, subject), value);
+    if (isWhole()) {
+      return recorder.aggregate(aggregate, metric, subject);
     }
-    return value;
+    return recorder.aggregate(aggregate, metric, subject, from, to);
   }
 
-  private double get(Metric metric, Subject subject, Observation observation) {
-    return switch (metric) {
-      case X -> subject.equals(Subject.FIRST) ? observation.getFirstAgentCenter().x() : observation.getAllBoundingBox()
-          .center()
-          .x();
-      case Y -> subject.equals(Subject.FIRST) ? observation.getFirstAgentCenter().y() : observation.getAllBoundingBox()
-          .center()
-          .y();
-      case TERRAIN_H -> {
-        if (subject.equals(Subject.FIRST)) {
-          yield observation.getFirstAgentCenter().y() - observation.getAgents().get(0).terrainHeight();
-        } else {
-          yield observation.getAgents().stream()
-              .mapToDouble(a -> Point.average(
-                  a.polies().stream().map(Poly::center).toArray(Point[]::new)
-              ).y() - a.terrainHeight())
-              .average().orElse(0d);
-        }
-      }
-      case BB_AREA -> subject.equals(Subject.FIRST) ? observation.getFirstAgentBoundingBox()
-          .area() : observation.getAllBoundingBox().area();
-      case BB_W -> subject.equals(Subject.FIRST) ? observation.getFirstAgentBoundingBox()
-          .width() : observation.getAllBoundingBox().width();
-      case BB_H -> subject.equals(Subject.FIRST) ? observation.getFirstAgentBoundingBox()
-          .height() : observation.getAllBoundingBox().height();
-    };
+  public double firstT() {
+    if (isWhole()) {
+      return recorder.firstT;
+    }
+    return from < to ? recorder.ts[from] : Double.NaN;
+  }
+
+  public boolean isStoringObservations() {
+    return recorder.storingObservations;
+  }
+
+  private boolean isWhole() {
+    return to < 0;
+  }
+
+  public Observation lastObservation() {
+    return recorder.lastObservation;
+  }
+
+  public double lastT() {
+    if (isWhole()) {
+      return recorder.lastT;
+    }
+    return from < to ? recorder.ts[to - 1] : Double.NaN;
   }
 
-  public Outcome subOutcome(DoubleRange tRange) {
+  /**
+   * Returns the simulated seconds per wall second of the task run producing this outcome, or {@code NaN} if unknown.
+   */
+  public double realTimeFactor() {
+    return realTimeFactor;
+  }
+
+  /**
+   * Returns the outcome on the observations with {@code tRange.min() <= t < tRange.max()}, e.g., {@code [transientTime,
+   * +inf)} for discarding a transient. If the range includes all the observations, this outcome is returned,
+   * otherwise the observations must have been stored (see {@link Recorder#Recorder(boolean)}).
+   */
+  public synchronized Outcome subOutcome(DoubleRange tRange) {
+    if (tRange.min() <= firstT() && tRange.max() > lastT()) {
+      return this;
+    }
+    if (!recorder.storingObservations) {
+      throw new UnsupportedOperationException(
+          ("Cannot compute the outcome in %s: observations have not been stored, build the task with " +
+              "storeObservations=true").formatted(tRange)
+      );
+    }
     Outcome subOutcome = subOutcomes.get(tRange);
     if (subOutcome == null) {
-      subOutcome = new Outcome(observations.subMap(tRange.min(), tRange.max()));
-      if (subOutcomes.size() >= N_OF_CACHED_SUB_OUTCOMES) {
-        //remove one
-        subOutcomes.remove(subOutcomes.keySet().iterator().next());
+      int localTo = isWhole() ? recorder.n : to;
+      subOutcome = new Outcome(
+          recorder,
+          recorder.indexOf(tRange.min(), from, localTo),
+          recorder.indexOf(tRange.max(), from, localTo),
+          termination,
+          realTimeFactor
+      );
+      //a range ending after the last observation of an outcome being recorded would miss the next observations
+      if (!isWhole() || tRange.max() <= recorder.lastT) {
+        subOutcomes.put(tRange, subOutcome);
       }
-      subOutcomes.put(tRange, subOutcome);
     }
     return subOutcome;
   }
 
+  /**
+   * Returns true if the task run producing this outcome was stopped before its duration, e.g., because of a stop
+   * condition, of a numerical divergence of the simulation, or of the wall time budget being exceeded.
+   */
+  public boolean terminatedEarly() {
+    return !termination.equals(Termination.COMPLETED);
+  }
+
+  public Termination termination() {
+    return termination;
+  }
+
   @Override
   public String toString() {
-    return "Outcome[%.1f->%.1f]".formatted(observations.firstKey(), observations.lastKey());
+    return "Outcome[%.1f->%.1f]".formatted(firstT(), lastT());
   }
 }
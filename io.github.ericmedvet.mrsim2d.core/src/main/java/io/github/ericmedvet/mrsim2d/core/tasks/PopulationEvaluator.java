@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.tasks;
+
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a task on many inputs with a bounded number of workers, each using its own engine, which is reset between
+ * consecutive runs. Runs of a {@link RandomizedTask} are indexed by the position of the input among all the inputs
+ * evaluated so far by this evaluator, hence outcomes do not depend on how runs are scheduled on workers.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class PopulationEvaluator<A, O> implements Function<List<A>, List<O>> {
+
+  private final static Logger L = Logger.getLogger(PopulationEvaluator.class.getName());
+
+  private final Task<A, O> task;
+  private final Supplier<Engine> engineSupplier;
+  private final Executor executor;
+  private final int nOfWorkers;
+  private final AtomicLong nOfEvaluatedInputs;
+
+  public PopulationEvaluator(Task<A, O> task, Supplier<Engine> engineSupplier, Executor executor, int nOfWorkers) {
+    if (nOfWorkers < 1) {
+      throw new IllegalArgumentException("Number of workers must be at least 1: %d found".formatted(nOfWorkers));
+    }
+    this.task = task;
+    this.engineSupplier = engineSupplier;
+    this.executor = executor;
+    this.nOfWorkers = nOfWorkers;
+    nOfEvaluatedInputs = new AtomicLong(0);
+  }
+
+  public record Evaluation<O>(List<O> outcomes, double simulatedTime, double wallTime) {
+    public double throughput() {
+      return simulatedTime / wallTime;
+    }
+  }
+
+  @Override
+  public List<O> apply(List<A> inputs) {
+    Evaluation<O> evaluation = evaluate(inputs);
+    L.fine(String.format(
+        "%d inputs evaluated in %.1fs: %.1f simulated s per s",
+        inputs.size(),
+        evaluation.wallTime(),
+        evaluation.throughput()
+    ));
+    return evaluation.outcomes();
+  }
+
+  @SuppressWarnings("unchecked")
+  public Evaluation<O> evaluate(List<A> inputs) {
+    long startingNanoTime = System.nanoTime();
+    Object[] outcomes = new Object[inputs.size()];
+    long firstRunIndex = nOfEvaluatedInputs.getAndAdd(inputs.size());
+    AtomicInteger nextIndex = new AtomicInteger(0);
+    DoubleAdder simulatedTime = new DoubleAdder();
+    List<CompletableFuture<Void>> workers = IntStream.range(0, Math.min(nOfWorkers, inputs.size()))
+        .mapToObj(w -> CompletableFuture.runAsync(
+            () -> {
+              Engine engine = null;
+              for (int i = nextIndex.getAndIncrement(); i < inputs.size(); i = nextIndex.getAndIncrement()) {
+                if (engine == null) {
+                  engine = engineSupplier.get();
+                } else {
+                  engine.reset();
+                }
+                if (task instanceof RandomizedTask<A, O> randomizedTask) {
+                  outcomes[i] = randomizedTask.run(inputs.get(i), firstRunIndex + i, engine);
+                } else {
+                  outcomes[i] = task.run(inputs.get(i), engine);
+                }
+                simulatedTime.add(engine.t());
+              }
+            },
+            executor
+        ))
+        .toList();
+    for (CompletableFuture<Void> worker : workers) {
+      try {
+        worker.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        throw e;
+      }
+    }
+    return new Evaluation<>(
+        Arrays.stream(outcomes).map(o -> (O) o).toList(),
+        simulatedTime.sum(),
+        (System.nanoTime() - startingNanoTime) / 1000000000d
+    );
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.tasks;
+
+import io.github.ericmedvet.mrsim2d.core.Snapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.SnapshotPolicy;
+
+import java.util.function.Consumer;
+
+/**
+ * A task whose runs depend on a random generator. The generator of a run is derived from the run index, so that runs
+ * with the same index behave the same regardless of the order, or the thread, in which they happen. Runs without an
+ * explicit index take consecutive indexes.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public interface RandomizedTask<A, O> extends Task<A, O> {
+
+  O run(A a, long runIndex, Engine engine, Consumer<Snapshot> snapshotConsumer);
+
+  default O run(A a, long runIndex, Engine engine) {
+    //nobody will look at snapshots: do not build them, but restore the policy, as the engine may be reused
+    SnapshotPolicy previousSnapshotPolicy = engine.getSnapshotPolicy();
+    engine.setSnapshotPolicy(SnapshotPolicy.NONE);
+    try {
+      return run(a, runIndex, engine, snapshot -> {});
+    } finally {
+      engine.setSnapshotPolicy(previousSnapshotPolicy);
+    }
+  }
+}
@@ -18,6 +18,7 @@ package io.github.ericmedvet.mrsim2d.core.tasks;
 
 import io.github.ericmedvet.mrsim2d.core.Snapshot;
 import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.SnapshotPolicy;
 
 import java.util.function.Consumer;
 
@@ -25,7 +26,19 @@ public interface Task<A, O> {
 
   O run(A a, Engine engine, Consumer<Snapshot> snapshotConsumer);
 
+  default O run(A a, Engine engine, SnapshotPolicy snapshotPolicy, Consumer<Snapshot> snapshotConsumer) {
+    //the engine may be reused: restore its policy
+    SnapshotPolicy previousSnapshotPolicy = engine.getSnapshotPolicy();
+    engine.setSnapshotPolicy(snapshotPolicy);
+    try {
+      return run(a, engine, snapshotConsumer);
+    } finally {
+      engine.setSnapshotPolicy(previousSnapshotPolicy);
+    }
+  }
+
   default O run(A a, Engine engine) {
-    return run(a, engine, snapshot -> {});
+    //nobody will look at snapshots: do not build them
+    return run(a, engine, SnapshotPolicy.NONE, snapshot -> {});
   }
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.tasks;
+
+import java.util.function.Predicate;
+
+/**
+ * A condition on an {@link Outcome} being recorded which looks at its sub-outcomes (see
+ * {@link Outcome#subOutcome(io.github.ericmedvet.jsdynsym.core.DoubleRange)}), hence needs the observations to be
+ * stored: tasks given such a stop condition store them regardless of how they are built.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public interface WindowedCondition extends Predicate<Outcome> {
+}
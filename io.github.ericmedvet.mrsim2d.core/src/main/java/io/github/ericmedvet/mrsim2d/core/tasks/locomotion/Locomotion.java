@@ -29,13 +29,11 @@ import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
 import io.github.ericmedvet.mrsim2d.core.tasks.Observation;
 import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
 import io.github.ericmedvet.mrsim2d.core.tasks.Task;
-import io.github.ericmedvet.mrsim2d.core.util.PolyUtils;
+import io.github.ericmedvet.mrsim2d.core.tasks.WindowedCondition;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class Locomotion implements Task<Supplier<EmbodiedAgent>, Outcome> {
@@ -46,11 +44,28 @@ public class Locomotion implements Task<Supplier<EmbodiedAgent>, Outcome> {
   private final Terrain terrain;
   private final double initialXGap;
   private final double initialYGap;
-  public Locomotion(double duration, Terrain terrain, double initialXGap, double initialYGap) {
+  private final Predicate<Outcome> stopCondition;
+  private final boolean storingObservations;
+
+  public Locomotion(
+      double duration,
+      Terrain terrain,
+      double initialXGap,
+      double initialYGap,
+      Predicate<Outcome> stopCondition,
+      boolean storingObservations
+  ) {
     this.duration = duration;
     this.terrain = terrain;
     this.initialXGap = initialXGap;
     this.initialYGap = initialYGap;
+    this.stopCondition = stopCondition;
+    //windowed stop conditions need stored observations
+    this.storingObservations = storingObservations || stopCondition instanceof WindowedCondition;
+  }
+
+  public Locomotion(double duration, Terrain terrain, double initialXGap, double initialYGap) {
+    this(duration, terrain, initialXGap, initialYGap, outcome -> false, false);
   }
 
   public Locomotion(
@@ -66,10 +81,11 @@ public class Locomotion implements Task<Supplier<EmbodiedAgent>, Outcome> {
       Engine engine,
       Consumer<Snapshot> snapshotConsumer
   ) {
+    long startingNanoTime = System.nanoTime();
     //create agent
     EmbodiedAgent embodiedAgent = embodiedAgentSupplier.get();
     //build world
-    engine.perform(new CreateUnmovableBody(terrain.poly()));
+    engine.perform(new CreateUnmovableBody(terrain));
     engine.perform(new AddAgent(embodiedAgent));
     //place agent
     BoundingBox agentBB = embodiedAgent.boundingBox();
@@ -84,21 +100,39 @@ public class Locomotion implements Task<Supplier<EmbodiedAgent>, Outcome> {
         maxY + initialYGap - agentBB.min().y()
     )));
     //run for defined time
-    Map<Double, Observation> observations = new HashMap<>();
+    Outcome.Recorder recorder = new Outcome.Recorder(storingObservations, duration);
+    Outcome.Termination termination = Outcome.Termination.COMPLETED;
     while (engine.t() < duration) {
       Snapshot snapshot = engine.tick();
-      snapshotConsumer.accept(snapshot);
-      observations.put(
+      if (snapshot != null) {
+        snapshotConsumer.accept(snapshot);
+      }
+      recorder.add(
           engine.t(),
           new Observation(
               List.of(new Observation.Agent(
                   embodiedAgent.bodyParts().stream().map(Body::poly).toList(),
-                  PolyUtils.maxYAtX(terrain.poly(), embodiedAgent.boundingBox().center().x())
+                  terrain.maxHeightAt(embodiedAgent.boundingBox().center().x())
               ))
           )
       );
+      if (engine.isDiverged()) {
+        termination = Outcome.Termination.DIVERGENCE;
+        break;
+      }
+      if (engine.isTimedOut()) {
+        termination = Outcome.Termination.TIMEOUT;
+        break;
+      }
+      if (stopCondition.test(recorder.outcome())) {
+        termination = Outcome.Termination.STOP_CONDITION;
+        break;
+      }
     }
     //return
-    return new Outcome(new TreeMap<>(observations));
+    return recorder.outcome(
+        termination,
+        engine.t() / ((System.nanoTime() - startingNanoTime) / 1000000000d)
+    );
   }
 }
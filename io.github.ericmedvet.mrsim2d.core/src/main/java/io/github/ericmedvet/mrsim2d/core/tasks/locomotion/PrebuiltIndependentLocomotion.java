@@ -17,14 +17,12 @@ import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
 import io.github.ericmedvet.mrsim2d.core.tasks.Observation;
 import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
 import io.github.ericmedvet.mrsim2d.core.tasks.Task;
+import io.github.ericmedvet.mrsim2d.core.tasks.WindowedCondition;
 import io.github.ericmedvet.mrsim2d.core.util.Grid;
-import io.github.ericmedvet.mrsim2d.core.util.PolyUtils;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
-import java.util.TreeMap;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -37,19 +35,36 @@ public class PrebuiltIndependentLocomotion implements Task<Supplier<AbstractInde
   private final double initialXGap;
   private final double initialYGap;
   private final Grid<GridBody.VoxelType> shape;
+  private final Predicate<Outcome> stopCondition;
+  private final boolean storingObservations;
 
   public PrebuiltIndependentLocomotion(
       double duration,
       Terrain terrain,
       double initialXGap,
       double initialYGap,
-      Grid<GridBody.VoxelType> shape
+      Grid<GridBody.VoxelType> shape,
+      Predicate<Outcome> stopCondition,
+      boolean storingObservations
   ) {
     this.duration = duration;
     this.terrain = terrain;
     this.initialXGap = initialXGap;
     this.initialYGap = initialYGap;
     this.shape = shape;
+    this.stopCondition = stopCondition;
+    //windowed stop conditions need stored observations
+    this.storingObservations = storingObservations || stopCondition instanceof WindowedCondition;
+  }
+
+  public PrebuiltIndependentLocomotion(
+      double duration,
+      Terrain terrain,
+      double initialXGap,
+      double initialYGap,
+      Grid<GridBody.VoxelType> shape
+  ) {
+    this(duration, terrain, initialXGap, initialYGap, shape, outcome -> false, false);
   }
 
   @Override
@@ -58,8 +73,9 @@ public class PrebuiltIndependentLocomotion implements Task<Supplier<AbstractInde
       Engine engine,
       Consumer<Snapshot> snapshotConsumer
   ) {
+    long startingNanoTime = System.nanoTime();
     //build world
-    engine.perform(new CreateUnmovableBody(terrain.poly()));
+    engine.perform(new CreateUnmovableBody(terrain));
     //place agents
     Grid<AbstractIndependentVoxel> agents = shape.map(t -> switch (t) {
       case NONE, RIGID -> null;
@@ -113,23 +129,41 @@ public class PrebuiltIndependentLocomotion implements Task<Supplier<AbstractInde
       }
     }
     //run for defined time
-    Map<Double, Observation> observations = new HashMap<>();
+    Outcome.Recorder recorder = new Outcome.Recorder(storingObservations, duration);
+    Outcome.Termination termination = Outcome.Termination.COMPLETED;
     while (engine.t() < duration) {
       Snapshot snapshot = engine.tick();
-      snapshotConsumer.accept(snapshot);
-      observations.put(
+      if (snapshot != null) {
+        snapshotConsumer.accept(snapshot);
+      }
+      recorder.add(
           engine.t(),
           new Observation(agents.values().stream()
               .filter(Objects::nonNull)
               .map(a -> new Observation.Agent(
                   a.bodyParts().stream().map(Body::poly).toList(),
-                  PolyUtils.maxYAtX(terrain.poly(), a.boundingBox().center().x())
+                  terrain.maxHeightAt(a.boundingBox().center().x())
               ))
               .toList()
           )
       );
+      if (engine.isDiverged()) {
+        termination = Outcome.Termination.DIVERGENCE;
+        break;
+      }
+      if (engine.isTimedOut()) {
+        termination = Outcome.Termination.TIMEOUT;
+        break;
+      }
+      if (stopCondition.test(recorder.outcome())) {
+        termination = Outcome.Termination.STOP_CONDITION;
+        break;
+      }
     }
     //return
-    return new Outcome(new TreeMap<>(observations));
+    return recorder.outcome(
+        termination,
+        engine.t() / ((System.nanoTime() - startingNanoTime) / 1000000000d)
+    );
   }
 }
@@ -29,26 +29,32 @@ import io.github.ericmedvet.mrsim2d.core.geometry.Point;
 import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
 import io.github.ericmedvet.mrsim2d.core.tasks.Observation;
 import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
-import io.github.ericmedvet.mrsim2d.core.tasks.Task;
-import io.github.ericmedvet.mrsim2d.core.util.PolyUtils;
+import io.github.ericmedvet.mrsim2d.core.tasks.RandomizedTask;
+import io.github.ericmedvet.mrsim2d.core.tasks.WindowedCondition;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.random.RandomGenerator;
 
-public class FallPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
+public class FallPiling implements RandomizedTask<Supplier<EmbodiedAgent>, Outcome> {
 
   private final static double X_GAP = 10;
+  private final static long SEED_GAMMA = 0x9e3779b97f4a7c15L;
 
   private final double duration;
   private final double fallInterval;
   private final int nOfAgents;
   private final double xSigmaRatio;
-  private final RandomGenerator randomGenerator;
+  private final long baseSeed;
+  private final AtomicLong nextRunIndex;
   private final Terrain terrain;
   private final double yGapRatio;
   private final double xGap;
+  private final Predicate<Outcome> stopCondition;
+  private final boolean storingObservations;
 
   public FallPiling(
       double duration,
@@ -58,16 +64,46 @@ public class FallPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
       RandomGenerator randomGenerator,
       Terrain terrain,
       double yGapRatio,
-      double xGap
+      double xGap,
+      Predicate<Outcome> stopCondition,
+      boolean storingObservations
   ) {
     this.duration = duration;
     this.fallInterval = fallInterval;
     this.nOfAgents = nOfAgents;
     this.xSigmaRatio = xSigmaRatio;
-    this.randomGenerator = randomGenerator;
+    baseSeed = randomGenerator.nextLong();
+    nextRunIndex = new AtomicLong(0);
     this.terrain = terrain;
     this.xGap = xGap;
     this.yGapRatio = yGapRatio;
+    this.stopCondition = stopCondition;
+    //windowed stop conditions need stored observations
+    this.storingObservations = storingObservations || stopCondition instanceof WindowedCondition;
+  }
+
+  public FallPiling(
+      double duration,
+      double fallInterval,
+      int nOfAgents,
+      double xSigmaRatio,
+      RandomGenerator randomGenerator,
+      Terrain terrain,
+      double yGapRatio,
+      double xGap
+  ) {
+    this(
+        duration,
+        fallInterval,
+        nOfAgents,
+        xSigmaRatio,
+        randomGenerator,
+        terrain,
+        yGapRatio,
+        xGap,
+        outcome -> false,
+        false
+    );
   }
 
   public FallPiling(
@@ -82,7 +118,12 @@ public class FallPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
     this(duration, fallInterval, nOfAgents, xSigmaRatio, randomGenerator, terrain, yGapRatio, X_GAP);
   }
 
-  private void placeAgent(Engine engine, EmbodiedAgent agent, List<EmbodiedAgent> agents) {
+  private void placeAgent(
+      Engine engine,
+      EmbodiedAgent agent,
+      List<EmbodiedAgent> agents,
+      RandomGenerator randomGenerator
+  ) {
     BoundingBox agentBB = agent.boundingBox();
     DoubleRange xRange = new DoubleRange(
         -agentBB.width() / 2d,
@@ -115,33 +156,64 @@ public class FallPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
       Engine engine,
       Consumer<Snapshot> snapshotConsumer
   ) {
+    return run(embodiedAgentSupplier, nextRunIndex.getAndIncrement(), engine, snapshotConsumer);
+  }
+
+  @Override
+  public Outcome run(
+      Supplier<EmbodiedAgent> embodiedAgentSupplier,
+      long runIndex,
+      Engine engine,
+      Consumer<Snapshot> snapshotConsumer
+  ) {
+    long startingNanoTime = System.nanoTime();
+    //the generator of this run depends only on the run index, as runs may happen concurrently, in any order
+    RandomGenerator runRandomGenerator = new SplittableRandom(baseSeed + runIndex * SEED_GAMMA);
     //build world
-    engine.perform(new CreateUnmovableBody(terrain.poly()));
+    engine.perform(new CreateUnmovableBody(terrain));
     //run for defined time
-    Map<Double, Observation> observations = new HashMap<>();
+    Outcome.Recorder recorder = new Outcome.Recorder(storingObservations, duration);
+    Outcome.Termination termination = Outcome.Termination.COMPLETED;
     List<EmbodiedAgent> agents = new ArrayList<>(nOfAgents);
     while (engine.t() < duration) {
       //check if new agent needed
       if (agents.size() < Math.ceil(engine.t() / fallInterval) && agents.size() < nOfAgents) {
         EmbodiedAgent agent = embodiedAgentSupplier.get();
         engine.perform(new AddAgent(agent));
-        placeAgent(engine, agent, agents);
+        placeAgent(engine, agent, agents, runRandomGenerator);
         agents.add(agent);
       }
       //tick
       Snapshot snapshot = engine.tick();
-      snapshotConsumer.accept(snapshot);
-      observations.put(
+      if (snapshot != null) {
+        snapshotConsumer.accept(snapshot);
+      }
+      recorder.add(
           engine.t(),
           new Observation(agents.stream()
               .map(a -> new Observation.Agent(
                   a.bodyParts().stream().map(Body::poly).toList(),
-                  PolyUtils.maxYAtX(terrain.poly(), a.boundingBox().center().x())
+                  terrain.maxHeightAt(a.boundingBox().center().x())
               ))
               .toList()
           )
       );
+      if (engine.isDiverged()) {
+        termination = Outcome.Termination.DIVERGENCE;
+        break;
+      }
+      if (engine.isTimedOut()) {
+        termination = Outcome.Termination.TIMEOUT;
+        break;
+      }
+      if (stopCondition.test(recorder.outcome())) {
+        termination = Outcome.Termination.STOP_CONDITION;
+        break;
+      }
     }
-    return new Outcome(new TreeMap<>(observations));
+    return recorder.outcome(
+        termination,
+        engine.t() / ((System.nanoTime() - startingNanoTime) / 1000000000d)
+    );
   }
 }
\ No newline at end of file
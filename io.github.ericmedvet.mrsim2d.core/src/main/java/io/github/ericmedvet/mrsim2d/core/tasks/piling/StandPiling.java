@@ -30,10 +30,11 @@ import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
 import io.github.ericmedvet.mrsim2d.core.tasks.Observation;
 import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
 import io.github.ericmedvet.mrsim2d.core.tasks.Task;
-import io.github.ericmedvet.mrsim2d.core.util.PolyUtils;
+import io.github.ericmedvet.mrsim2d.core.tasks.WindowedCondition;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class StandPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
@@ -46,6 +47,8 @@ public class StandPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
   private final Terrain terrain;
   private final double firstXGap;
   private final double initialYGap;
+  private final Predicate<Outcome> stopCondition;
+  private final boolean storingObservations;
 
   public StandPiling(
       double duration,
@@ -53,7 +56,9 @@ public class StandPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
       double xGapRatio,
       Terrain terrain,
       double firstXGap,
-      double initialYGap
+      double initialYGap,
+      Predicate<Outcome> stopCondition,
+      boolean storingObservations
   ) {
     this.duration = duration;
     this.nOfAgents = nOfAgents;
@@ -61,6 +66,20 @@ public class StandPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
     this.terrain = terrain;
     this.firstXGap = firstXGap;
     this.initialYGap = initialYGap;
+    this.stopCondition = stopCondition;
+    //windowed stop conditions need stored observations
+    this.storingObservations = storingObservations || stopCondition instanceof WindowedCondition;
+  }
+
+  public StandPiling(
+      double duration,
+      int nOfAgents,
+      double xGapRatio,
+      Terrain terrain,
+      double firstXGap,
+      double initialYGap
+  ) {
+    this(duration, nOfAgents, xGapRatio, terrain, firstXGap, initialYGap, outcome -> false, false);
   }
 
   public StandPiling(double duration, int nOfAgents, double xGapRatio, Terrain terrain) {
@@ -89,8 +108,9 @@ public class StandPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
       Engine engine,
       Consumer<Snapshot> snapshotConsumer
   ) {
+    long startingNanoTime = System.nanoTime();
     //build world
-    engine.perform(new CreateUnmovableBody(terrain.poly()));
+    engine.perform(new CreateUnmovableBody(terrain));
     //place agents
     List<EmbodiedAgent> agents = new ArrayList<>(nOfAgents);
     while (agents.size() < nOfAgents) {
@@ -100,23 +120,41 @@ public class StandPiling implements Task<Supplier<EmbodiedAgent>, Outcome> {
       agents.add(agent);
     }
     //run for defined time
-    Map<Double, Observation> observations = new HashMap<>();
+    Outcome.Recorder recorder = new Outcome.Recorder(storingObservations, duration);
+    Outcome.Termination termination = Outcome.Termination.COMPLETED;
     while (engine.t() < duration) {
       //tick
       Snapshot snapshot = engine.tick();
-      snapshotConsumer.accept(snapshot);
-      observations.put(
+      if (snapshot != null) {
+        snapshotConsumer.accept(snapshot);
+      }
+      recorder.add(
           engine.t(),
           new Observation(agents.stream()
               .map(a -> new Observation.Agent(
                   a.bodyParts().stream().map(Body::poly).toList(),
-                  PolyUtils.maxYAtX(terrain.poly(), a.boundingBox().center().x())
+                  terrain.maxHeightAt(a.boundingBox().center().x())
               ))
               .toList()
           )
       );
+      if (engine.isDiverged()) {
+        termination = Outcome.Termination.DIVERGENCE;
+        break;
+      }
+      if (engine.isTimedOut()) {
+        termination = Outcome.Termination.TIMEOUT;
+        break;
+      }
+      if (stopCondition.test(recorder.outcome())) {
+        termination = Outcome.Termination.STOP_CONDITION;
+        break;
+      }
     }
-    return new Outcome(new TreeMap<>(observations));
+    return recorder.outcome(
+        termination,
+        engine.t() / ((System.nanoTime() - startingNanoTime) / 1000000000d)
+    );
   }
 
 }
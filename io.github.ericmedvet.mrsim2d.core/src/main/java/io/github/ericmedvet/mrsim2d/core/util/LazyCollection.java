@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.util;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class LazyCollection<E> extends AbstractCollection<E> {
+  private final Supplier<? extends Collection<E>> supplier;
+  private Collection<E> collection;
+
+  public LazyCollection(Supplier<? extends Collection<E>> supplier) {
+    this.supplier = supplier;
+  }
+
+  private Collection<E> get() {
+    if (collection == null) {
+      collection = supplier.get();
+    }
+    return collection;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return get().iterator();
+  }
+
+  @Override
+  public int size() {
+    return get().size();
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.util;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class LazyMap<K, V> extends AbstractMap<K, V> {
+  private final Supplier<? extends Map<K, V>> supplier;
+  private Map<K, V> map;
+
+  public LazyMap(Supplier<? extends Map<K, V>> supplier) {
+    this.supplier = supplier;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return get().entrySet();
+  }
+
+  private Map<K, V> get() {
+    if (map == null) {
+      map = supplier.get();
+    }
+    return map;
+  }
+
+  @Override
+  public V get(Object key) {
+    return get().get(key);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.geometry;
+
+import io.github.ericmedvet.jsdynsym.core.DoubleRange;
+import io.github.ericmedvet.mrsim2d.core.util.PolyUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class TerrainTest {
+
+  private final static double EPSILON = 1e-9;
+
+  //a hilly terrain with borders and some vertical steps, as the ones built in the buildable module
+  private static Terrain randomTerrain(Random random, int nOfChunks) {
+    List<Point> points = new ArrayList<>();
+    points.add(new Point(0, 0));
+    points.add(new Point(0, 10));
+    points.add(new Point(5, 10));
+    points.add(new Point(5, 0));
+    double x = 5;
+    double y = 0;
+    for (int i = 0; i < nOfChunks; i++) {
+      if (random.nextBoolean()) {
+        y = y + random.nextGaussian();
+        points.add(new Point(x, y));
+      }
+      x = x + 0.1 + random.nextDouble() * 2;
+      y = y + random.nextGaussian();
+      points.add(new Point(x, y));
+    }
+    double minY = points.stream().mapToDouble(Point::y).min().orElseThrow();
+    points.add(new Point(x, y + 10));
+    points.add(new Point(x + 5, y + 10));
+    points.add(new Point(x + 5, minY - 10));
+    points.add(new Point(0, minY - 10));
+    return new Terrain(new Poly(points.toArray(Point[]::new)), new DoubleRange(5, x));
+  }
+
+  @Test
+  public void maxHeightAtMatchesBruteForce() {
+    Random random = new Random(1);
+    for (int k = 0; k < 10; k = k + 1) {
+      Terrain terrain = randomTerrain(random, 200);
+      BoundingBox bb = terrain.poly().boundingBox();
+      for (int i = 0; i < 1000; i = i + 1) {
+        double x = bb.min().x() + random.nextDouble() * bb.width();
+        assertEquals(PolyUtils.maxYAtX(terrain.poly(), x), terrain.maxHeightAt(x), EPSILON);
+      }
+      for (Point vertex : terrain.poly().vertexes()) {
+        assertEquals(PolyUtils.maxYAtX(terrain.poly(), vertex.x()), terrain.maxHeightAt(vertex.x()), EPSILON);
+      }
+      assertTrue(Double.isNaN(terrain.maxHeightAt(bb.min().x() - 1)));
+      assertTrue(Double.isNaN(terrain.maxHeightAt(bb.max().x() + 1)));
+    }
+  }
+
+  @Test
+  public void maxHeightAtRangeMatchesBruteForce() {
+    Random random = new Random(2);
+    for (int k = 0; k < 10; k = k + 1) {
+      Terrain terrain = randomTerrain(random, 100);
+      BoundingBox bb = terrain.poly().boundingBox();
+      for (int i = 0; i < 100; i = i + 1) {
+        double x1 = bb.min().x() + random.nextDouble() * bb.width();
+        double x2 = Math.min(bb.max().x(), x1 + random.nextDouble() * 20);
+        //the max on a range is at one of its ends or at a vertex within it
+        double expected = Math.max(PolyUtils.maxYAtX(terrain.poly(), x1), PolyUtils.maxYAtX(terrain.poly(), x2));
+        for (Point vertex : terrain.poly().vertexes()) {
+          if (vertex.x() >= x1 && vertex.x() <= x2) {
+            expected = Math.max(expected, PolyUtils.maxYAtX(terrain.poly(), vertex.x()));
+          }
+        }
+        assertEquals(expected, terrain.maxHeightAt(new DoubleRange(x1, x2)), EPSILON);
+      }
+    }
+  }
+}
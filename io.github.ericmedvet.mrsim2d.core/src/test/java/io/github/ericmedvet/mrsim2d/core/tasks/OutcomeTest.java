@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.tasks;
+
+import io.github.ericmedvet.jsdynsym.core.DoubleRange;
+import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class OutcomeTest {
+
+  private static Observation observation(double x) {
+    return observation(x, 1);
+  }
+
+  private static Observation observation(double x, double h) {
+    return new Observation(List.of(new Observation.Agent(
+        List.of(new Poly(new Point(x, 0), new Point(x + 1, 0), new Point(x + 1, h), new Point(x, h))),
+        0
+    )));
+  }
+
+  @Test
+  public void agentLessObservationsAreSkipped() {
+    Outcome.Recorder recorder = new Outcome.Recorder(true);
+    recorder.add(0, new Observation(List.of()));
+    recorder.add(1, observation(0));
+    recorder.add(2, observation(3));
+    Outcome outcome = recorder.outcome();
+    assertEquals(1d, outcome.firstT());
+    assertEquals(2d, outcome.lastT());
+    assertEquals(3d, outcome.firstAgentXDistance(), 1e-9);
+  }
+
+  @Test
+  public void subOutcomeOfWholeRangeIsSameOutcome() {
+    Outcome.Recorder recorder = new Outcome.Recorder(false);
+    for (int i = 0; i < 10; i = i + 1) {
+      recorder.add(i, observation(i));
+    }
+    Outcome outcome = recorder.outcome();
+    assertSame(outcome, outcome.subOutcome(new DoubleRange(0, Double.POSITIVE_INFINITY)));
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> outcome.subOutcome(new DoubleRange(5, Double.POSITIVE_INFINITY))
+    );
+  }
+
+  @Test
+  public void subOutcomeOfStoredObservations() {
+    Outcome.Recorder recorder = new Outcome.Recorder(true);
+    for (int i = 0; i < 10; i = i + 1) {
+      recorder.add(i, observation(i * i));
+    }
+    Outcome subOutcome = recorder.outcome().subOutcome(new DoubleRange(5, Double.POSITIVE_INFINITY));
+    assertEquals(5d, subOutcome.firstT());
+    assertEquals(9d, subOutcome.lastT());
+    assertEquals(81d - 25d, subOutcome.firstAgentXDistance(), 1e-9);
+  }
+
+  @Test
+  public void agentsOutsideTerrainArePresent() {
+    Observation.Agent outside = observation(0, 1).getAgents().get(0);
+    outside = new Observation.Agent(outside.polies(), Double.NaN);
+    Observation.Agent inside = observation(5, 1).getAgents().get(0);
+    Outcome.Recorder recorder = new Outcome.Recorder(true);
+    recorder.add(0, new Observation(List.of(outside)));
+    recorder.add(1, new Observation(List.of(outside, inside)));
+    recorder.add(2, new Observation(List.of(outside, inside)));
+    Outcome subOutcome = recorder.outcome().subOutcome(new DoubleRange(1, Double.POSITIVE_INFINITY));
+    assertEquals(6d, subOutcome.allAgentsMaxWidth());
+    assertEquals(6d, subOutcome.allAgentsFinalWidth());
+  }
+
+  @Test
+  public void maxOnSubRangesWhileRecording() {
+    Outcome.Recorder recorder = new Outcome.Recorder(true);
+    Outcome outcome = recorder.outcome();
+    Random random = new Random(1);
+    double[] hs = new double[300];
+    for (int i = 0; i < hs.length; i = i + 1) {
+      hs[i] = 1 + random.nextDouble();
+      recorder.add(i, observation(0, hs[i]));
+      for (int from = 0; from <= i; from = from + 1 + i / 7) {
+        double max = 0;
+        for (int j = from; j <= i; j = j + 1) {
+          max = Math.max(max, hs[j]);
+        }
+        assertEquals(max, outcome.subOutcome(new DoubleRange(from, Double.POSITIVE_INFINITY)).allAgentsMaxHeight());
+      }
+    }
+  }
+}
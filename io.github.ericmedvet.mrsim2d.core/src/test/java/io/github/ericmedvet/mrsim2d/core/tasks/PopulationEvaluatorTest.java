@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.core.tasks;
+
+import io.github.ericmedvet.mrsim2d.core.Snapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class PopulationEvaluatorTest {
+
+  private final static int N_OF_INPUTS = 50;
+
+  private record Run(int input, double random) {}
+
+  //a task whose outcome depends on the input and on the run index, with runs of random wall duration
+  private static class SleepingTask implements RandomizedTask<Integer, Run> {
+    @Override
+    public Run run(Integer input, Engine engine, Consumer<Snapshot> snapshotConsumer) {
+      throw new UnsupportedOperationException("Runs must be indexed");
+    }
+
+    @Override
+    public Run run(Integer input, long runIndex, Engine engine, Consumer<Snapshot> snapshotConsumer) {
+      try {
+        Thread.sleep(new SplittableRandom().nextInt(3));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new Run(input, new SplittableRandom(runIndex).nextDouble());
+    }
+  }
+
+  //an engine doing nothing, counting the engines built
+  private static Supplier<Engine> engineSupplier(AtomicInteger nOfEngines) {
+    return () -> {
+      nOfEngines.incrementAndGet();
+      return (Engine) Proxy.newProxyInstance(
+          Engine.class.getClassLoader(),
+          new Class<?>[]{Engine.class},
+          (proxy, method, args) -> {
+            Class<?> type = method.getReturnType();
+            if (type.equals(double.class)) {
+              return 0d;
+            }
+            if (type.equals(int.class)) {
+              return 0;
+            }
+            if (type.equals(boolean.class)) {
+              return false;
+            }
+            return null;
+          }
+      );
+    };
+  }
+
+  private static List<Integer> inputs() {
+    return IntStream.range(0, N_OF_INPUTS).boxed().toList();
+  }
+
+  @Test
+  public void outcomesAreInInputOrder() {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      AtomicInteger nOfEngines = new AtomicInteger();
+      PopulationEvaluator<Integer, Run> evaluator = new PopulationEvaluator<>(
+          new SleepingTask(),
+          engineSupplier(nOfEngines),
+          executor,
+          4
+      );
+      List<Run> runs = evaluator.apply(inputs());
+      assertEquals(inputs(), runs.stream().map(Run::input).toList());
+      assertTrue(nOfEngines.get() <= 4);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void outcomesDoNotDependOnWorkers() {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      PopulationEvaluator<Integer, Run> serialEvaluator = new PopulationEvaluator<>(
+          new SleepingTask(),
+          engineSupplier(new AtomicInteger()),
+          executor,
+          1
+      );
+      PopulationEvaluator<Integer, Run> parallelEvaluator = new PopulationEvaluator<>(
+          new SleepingTask(),
+          engineSupplier(new AtomicInteger()),
+          executor,
+          8
+      );
+      //also consecutive evaluations, as run indexes go on across them
+      for (int i = 0; i < 3; i = i + 1) {
+        assertEquals(serialEvaluator.apply(inputs()), parallelEvaluator.apply(inputs()));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.engine.dyn4j;
+
+import org.dyn4j.dynamics.Body;
+import org.dyn4j.dynamics.BodyFixture;
+import org.dyn4j.geometry.MassType;
+import org.dyn4j.geometry.Polygon;
+import org.dyn4j.geometry.Transform;
+import org.dyn4j.geometry.Vector2;
+
+import java.util.*;
+
+/**
+ * A single dyn4j body made of the fixtures of a group of rigidly linked {@link RigidBody}s, which stand in the world
+ * in place of their own bodies. On fusion, the compound body gets the overall momentum of the parts. After each step,
+ * the bodies of the parts, which are hence views of the compound one, are moved to where the compound body is, so
+ * that sensing and drawing the parts work as if they were not fused.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class CompoundBody {
+
+  private final Body body;
+  private final Map<RigidBody, Transform> partTransforms;
+
+  public CompoundBody(Collection<RigidBody> parts) {
+    body = new Body();
+    partTransforms = new LinkedHashMap<>();
+    //the compound body is built with the identity transform, hence world and local coordinates coincide
+    for (RigidBody part : parts) {
+      Body partBody = part.getBody();
+      Transform partTransform = partBody.getTransform();
+      for (BodyFixture fixture : partBody.getFixtures()) {
+        Polygon polygon = new Polygon(Arrays.stream(((Polygon) fixture.getShape()).getVertices())
+            .map(partTransform::getTransformed)
+            .toArray(Vector2[]::new));
+        BodyFixture compoundFixture = body.addFixture(
+            polygon,
+            fixture.getDensity(),
+            fixture.getFriction(),
+            fixture.getRestitution()
+        );
+        compoundFixture.setFilter(fixture.getFilter());
+        //contacts with the compound body are resolved to the part owning the touching fixture
+        compoundFixture.setUserData(part);
+      }
+      partTransforms.put(part, partTransform.copy());
+    }
+    body.setMass(MassType.NORMAL);
+    //velocities conserve the linear and angular (around the compound center) momenta of the parts; damping is
+    // averaged, weighted by mass for the linear one and by the inertia around the compound center for the angular one
+    Vector2 center = body.getWorldCenter();
+    double mass = 0d;
+    double inertia = 0d;
+    Vector2 linearMomentum = new Vector2();
+    double angularMomentum = 0d;
+    double linearDamping = 0d;
+    double angularDamping = 0d;
+    for (RigidBody part : parts) {
+      Body partBody = part.getBody();
+      double partMass = partBody.getMass().getMass();
+      Vector2 r = partBody.getWorldCenter().difference(center);
+      Vector2 v = partBody.getLinearVelocity();
+      double partInertia = partBody.getMass().getInertia() + partMass * r.getMagnitudeSquared();
+      mass = mass + partMass;
+      inertia = inertia + partInertia;
+      linearMomentum.add(v.product(partMass));
+      angularMomentum = angularMomentum + partBody.getMass().getInertia() * partBody.getAngularVelocity()
+          + partMass * r.cross(v);
+      linearDamping = linearDamping + partBody.getLinearDamping() * partMass;
+      angularDamping = angularDamping + partBody.getAngularDamping() * partInertia;
+    }
+    body.setLinearDamping(linearDamping / mass);
+    body.setAngularDamping(angularDamping / inertia);
+    body.setLinearVelocity(linearMomentum.product(1d / body.getMass().getMass()));
+    body.setAngularVelocity(angularMomentum / body.getMass().getInertia());
+    //fallback for contacts not resolved through fixtures
+    body.setUserData(parts.iterator().next());
+  }
+
+  public Body getBody() {
+    return body;
+  }
+
+  public Set<RigidBody> getParts() {
+    return partTransforms.keySet();
+  }
+
+  public void updateParts() {
+    Transform transform = body.getTransform();
+    Vector2 center = body.getWorldCenter();
+    Vector2 linearVelocity = body.getLinearVelocity();
+    double angularVelocity = body.getAngularVelocity();
+    for (Map.Entry<RigidBody, Transform> entry : partTransforms.entrySet()) {
+      Body partBody = entry.getKey().getBody();
+      Transform partTransform = partBody.getTransform();
+      Vector2 translation = transform.getTransformed(entry.getValue().getTranslation());
+      partTransform.setRotation(transform.getRotationAngle() + entry.getValue().getRotationAngle());
+      partTransform.setTranslation(translation.x, translation.y);
+      Vector2 r = partBody.getWorldCenter().difference(center);
+      partBody.setLinearVelocity(
+          linearVelocity.x - angularVelocity * r.y,
+          linearVelocity.y + angularVelocity * r.x
+      );
+      partBody.setAngularVelocity(angularVelocity);
+    }
+  }
+}
@@ -23,25 +23,43 @@ import io.github.ericmedvet.mrsim2d.core.bodies.Anchor;
 import io.github.ericmedvet.mrsim2d.core.bodies.Anchorable;
 import io.github.ericmedvet.mrsim2d.core.bodies.Body;
 import io.github.ericmedvet.mrsim2d.core.engine.AbstractEngine;
+import io.github.ericmedvet.mrsim2d.core.engine.AdaptiveStepping;
+import io.github.ericmedvet.mrsim2d.core.engine.CollisionPipeline;
+import io.github.ericmedvet.mrsim2d.core.engine.EngineSnapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.FidelityProfile;
 import io.github.ericmedvet.mrsim2d.core.engine.IllegalActionException;
+import io.github.ericmedvet.mrsim2d.core.engine.SleepPolicy;
+import io.github.ericmedvet.mrsim2d.core.engine.VoxelModel;
 import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
 import io.github.ericmedvet.mrsim2d.core.util.PolyUtils;
+import org.dyn4j.collision.broadphase.CollisionItemAABBProducer;
+import org.dyn4j.collision.broadphase.CollisionItemBroadphaseDetectorAdapter;
+import org.dyn4j.collision.broadphase.CollisionItemBroadphaseFilter;
+import org.dyn4j.collision.broadphase.DynamicAABBTree;
+import org.dyn4j.collision.broadphase.Sap;
+import org.dyn4j.collision.broadphase.StaticValueAABBExpansionMethod;
+import org.dyn4j.collision.narrowphase.Gjk;
+import org.dyn4j.collision.narrowphase.Sat;
 import org.dyn4j.dynamics.BodyFixture;
 import org.dyn4j.dynamics.ContinuousDetectionMode;
 import org.dyn4j.dynamics.Settings;
+import org.dyn4j.dynamics.contact.Contact;
+import org.dyn4j.dynamics.contact.ContactConstraint;
 import org.dyn4j.dynamics.joint.DistanceJoint;
 import org.dyn4j.dynamics.joint.Joint;
+import org.dyn4j.dynamics.joint.RevoluteJoint;
 import org.dyn4j.dynamics.joint.WeldJoint;
+import org.dyn4j.geometry.MassType;
 import org.dyn4j.geometry.Ray;
 import org.dyn4j.geometry.Vector2;
+import org.dyn4j.world.ContactCollisionData;
 import org.dyn4j.world.DetectFilter;
 import org.dyn4j.world.World;
+import org.dyn4j.world.listener.ContactListenerAdapter;
 import org.dyn4j.world.result.RaycastResult;
 
-import java.util.Collection;
-import java.util.EnumSet;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
 
 /**
  * @author "Eric Medvet" on 2022/07/07 for 2dmrsim
@@ -50,19 +68,63 @@ public class Dyn4JEngine extends AbstractEngine {
 
   private final static Configuration DEFAULT_CONFIGURATION = new Configuration(
       getDefaultSettings(),
-      1, 0.5, 0.1, 0.1,
+      CollisionPipeline.DEFAULT,
+      SleepPolicy.DEFAULT,
+      AdaptiveStepping.DISABLED,
+      1, 0.5, 0.1, 0.1, false,
       1, 0.5,
-      1, 0.5, 0.1, 0.1, 0.35, EnumSet.allOf(Voxel.SpringScaffolding.class),
+      1, 0.5, 0.1, 0.1, 0.35, EnumSet.allOf(Voxel.SpringScaffolding.class), VoxelModel.STANDARD,
       8d, 0.3d, 0.5d,
-      10, 0.1
+      10, 0.1,
+      1000, 1000
+  );
+  private final static int N_OF_CACHED_UNMOVABLE_BODIES = 4;
+  //two springs per side, to constrain also the rotation of the vertexes, and two diagonals, with no central mass
+  private final static EnumSet<Voxel.SpringScaffolding> LIGHTWEIGHT_VOXEL_SPRING_SCAFFOLDINGS = EnumSet.of(
+      Voxel.SpringScaffolding.SIDE_INTERNAL,
+      Voxel.SpringScaffolding.SIDE_EXTERNAL,
+      Voxel.SpringScaffolding.CENTRAL_CROSS
   );
   private final Configuration configuration;
   private final World<org.dyn4j.dynamics.Body> world;
+  private final Map<UnmovableBodyKey, UnmovableBody> unmovableBodies;
+  private final Set<UnmovableBody> unclaimedUnmovableBodies;
+  private final Map<RigidBody, CompoundBody> compoundBodies;
+  private final Set<RigidBody> unfusedRigidBodies;
+  private boolean rigidBodyFusion;
+  private boolean broadphaseOutdated;
+  private SleepPolicy sleepPolicy;
+  private AdaptiveStepping adaptiveStepping;
+  private int stepUnits;
+  private boolean startedContacts;
+  private double[] velocities;
+  private VoxelModel voxelModel;
 
   public Dyn4JEngine(Configuration configuration) {
     this.configuration = configuration;
+    velocities = new double[0];
     world = new World<>();
     world.setSettings(configuration.innerSettings());
+    world.addContactListener(new ContactListenerAdapter<>() {
+      @Override
+      public void begin(ContactCollisionData<org.dyn4j.dynamics.Body> collision, Contact contact) {
+        startedContacts = true;
+      }
+    });
+    setCollisionPipeline(configuration.collisionPipeline());
+    setSleepPolicy(configuration.sleepPolicy());
+    setAdaptiveStepping(configuration.adaptiveStepping());
+    voxelModel = configuration.voxelModel();
+    unmovableBodies = new LinkedHashMap<>(N_OF_CACHED_UNMOVABLE_BODIES, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<UnmovableBodyKey, UnmovableBody> eldest) {
+        return size() > N_OF_CACHED_UNMOVABLE_BODIES;
+      }
+    };
+    unclaimedUnmovableBodies = Collections.newSetFromMap(new IdentityHashMap<>());
+    compoundBodies = new HashMap<>();
+    unfusedRigidBodies = new LinkedHashSet<>();
+    rigidBodyFusion = configuration.rigidBodyFusion();
   }
 
   public Dyn4JEngine() {
@@ -71,10 +133,14 @@ public class Dyn4JEngine extends AbstractEngine {
 
   public record Configuration(
       Settings innerSettings,
+      CollisionPipeline collisionPipeline,
+      SleepPolicy sleepPolicy,
+      AdaptiveStepping adaptiveStepping,
       double rigidBodyFriction,
       double rigidBodyRestitution,
       double rigidBodyLinearDamping,
       double rigidBodyAngularDamping,
+      boolean rigidBodyFusion,
       double unmovableBodyFriction,
       double unmovableBodyRestitution,
       double voxelFriction,
@@ -83,13 +149,18 @@ public class Dyn4JEngine extends AbstractEngine {
       double voxelAngularDamping,
       double voxelVertexMassSideLengthRatio,
       EnumSet<Voxel.SpringScaffolding> voxelSpringScaffoldings,
+      VoxelModel voxelModel,
       double softLinkSpringF,
       double softLinkSpringD,
       double softLinkRestDistanceRatio,
       double attractionMaxMagnitude,
-      double anchorSideDistance
+      double anchorSideDistance,
+      double maxBodyLinearSpeed,
+      double maxBodyAngularSpeed
   ) {}
 
+  private record UnmovableBodyKey(Terrain terrain, double anchorsDensity) {}
+
   private static Settings getDefaultSettings() {
     Settings settings = new Settings();
     settings.setContinuousDetectionMode(ContinuousDetectionMode.ALL);
@@ -98,6 +169,63 @@ public class Dyn4JEngine extends AbstractEngine {
     return settings;
   }
 
+  //profiles override some of the given settings, balanced none of them; sleeping is left to the sleep policy
+  //contact impulses are reused (warm starting) while contacts move less than the warm start distance: fast reuses them
+  // more, to make up for the fewer solver iterations, accurate less, to avoid starting from stale impulses
+  private static Settings getSettings(Settings baseSettings, FidelityProfile fidelityProfile) {
+    Settings settings = copy(baseSettings);
+    switch (fidelityProfile) {
+      case FAST -> {
+        settings.setStepFrequency(1d / 40d);
+        settings.setContinuousDetectionMode(ContinuousDetectionMode.BULLETS_ONLY);
+        settings.setVelocityConstraintSolverIterations(8);
+        settings.setPositionConstraintSolverIterations(4);
+        settings.setWarmStartDistance(5d * Settings.DEFAULT_WARM_START_DISTANCE);
+      }
+      case ACCURATE -> {
+        settings.setStepFrequency(1d / 120d);
+        settings.setVelocityConstraintSolverIterations(30);
+        settings.setPositionConstraintSolverIterations(30);
+        settings.setWarmStartDistance(Settings.DEFAULT_WARM_START_DISTANCE / 2d);
+      }
+      case BALANCED -> {
+      }
+    }
+    return settings;
+  }
+
+  private static Settings copy(Settings settings) {
+    Settings copy = new Settings();
+    copy.setStepFrequency(settings.getStepFrequency());
+    copy.setMaximumTranslation(settings.getMaximumTranslation());
+    copy.setMaximumRotation(settings.getMaximumRotation());
+    copy.setAtRestDetectionEnabled(settings.isAtRestDetectionEnabled());
+    copy.setMaximumAtRestLinearVelocity(settings.getMaximumAtRestLinearVelocity());
+    copy.setMaximumAtRestAngularVelocity(settings.getMaximumAtRestAngularVelocity());
+    copy.setMinimumAtRestTime(settings.getMinimumAtRestTime());
+    copy.setVelocityConstraintSolverIterations(settings.getVelocityConstraintSolverIterations());
+    copy.setPositionConstraintSolverIterations(settings.getPositionConstraintSolverIterations());
+    copy.setWarmStartDistance(settings.getWarmStartDistance());
+    copy.setRestitutionVelocity(settings.getRestitutionVelocity());
+    copy.setLinearTolerance(settings.getLinearTolerance());
+    copy.setAngularTolerance(settings.getAngularTolerance());
+    copy.setMaximumLinearCorrection(settings.getMaximumLinearCorrection());
+    copy.setMaximumAngularCorrection(settings.getMaximumAngularCorrection());
+    copy.setBaumgarte(settings.getBaumgarte());
+    copy.setContinuousDetectionMode(settings.getContinuousDetectionMode());
+    return copy;
+  }
+
+  private static Settings withSleepPolicy(Settings settings, SleepPolicy sleepPolicy) {
+    settings.setAtRestDetectionEnabled(sleepPolicy.isEnabled());
+    if (sleepPolicy.isEnabled()) {
+      settings.setMaximumAtRestLinearVelocity(sleepPolicy.maxLinearSpeed());
+      settings.setMaximumAtRestAngularVelocity(sleepPolicy.maxAngularSpeed());
+      settings.setMinimumAtRestTime(sleepPolicy.minTime());
+    }
+    return settings;
+  }
+
   private RotationalJoint actuateRotationalJoint(
       ActuateRotationalJoint action,
       Agent agent
@@ -125,6 +253,57 @@ public class Dyn4JEngine extends AbstractEngine {
     );
   }
 
+  private void applyForce(BodyAnchor anchor, Vector2 force) {
+    org.dyn4j.dynamics.Body body = simulatedBody(anchor);
+    if (body == anchor.getBody()) {
+      body.applyForce(force);
+    } else {
+      body.applyForce(force, anchor.getBody().getWorldCenter());
+    }
+  }
+
+  //returns the estimated error of the step, in m, or infinity if the step started new contacts
+  private double adaptiveStep(double t, double dT) {
+    int nOfBodies = world.getBodyCount();
+    if (velocities.length < 2 * nOfBodies) {
+      velocities = new double[4 * nOfBodies];
+    }
+    for (int i = 0; i < nOfBodies; i++) {
+      Vector2 velocity = world.getBody(i).getLinearVelocity();
+      velocities[2 * i] = velocity.x;
+      velocities[2 * i + 1] = velocity.y;
+    }
+    startedContacts = false;
+    step(t, dT);
+    //new contacts need short steps regardless of the error
+    if (startedContacts) {
+      return Double.POSITIVE_INFINITY;
+    }
+    //impacts show up as velocity jumps not due to gravity: take the displacement they cause within the step
+    Vector2 gravity = world.getGravity();
+    double error = 0d;
+    for (int i = 0; i < nOfBodies; i++) {
+      org.dyn4j.dynamics.Body body = world.getBody(i);
+      if (body.isAtRest() || body.getMass().getType().equals(MassType.INFINITE)) {
+        continue;
+      }
+      Vector2 velocity = body.getLinearVelocity();
+      error = Math.max(error, Math.hypot(
+          velocity.x - velocities[2 * i] - gravity.x * dT,
+          velocity.y - velocities[2 * i + 1] - gravity.y * dT
+      ) * dT);
+    }
+    //rigid constraints drift apart when the solver does not converge
+    for (Joint<org.dyn4j.dynamics.Body> joint : world.getJoints()) {
+      if (joint instanceof WeldJoint<org.dyn4j.dynamics.Body> weldJoint) {
+        error = Math.max(error, weldJoint.getAnchor1().distance(weldJoint.getAnchor2()));
+      } else if (joint instanceof RevoluteJoint<org.dyn4j.dynamics.Body> revoluteJoint) {
+        error = Math.max(error, revoluteJoint.getAnchor1().distance(revoluteJoint.getAnchor2()));
+      }
+    }
+    return error;
+  }
+
   private Double attractAnchor(AttractAnchor action, Agent agent) throws IllegalActionException {
     if (action.source().anchorable() == action.destination().anchorable()) {
       throw new IllegalActionException(action, "Cannot attract an anchor of the same body");
@@ -134,8 +313,8 @@ public class Dyn4JEngine extends AbstractEngine {
         if (action.destination() instanceof BodyAnchor dst) {
           double f = new DoubleRange(0, configuration.attractionMaxMagnitude).denormalize(action.magnitude());
           Vector2 force = new Vector2(dst.point().diff(src.point()).direction());
-          src.getBody().applyForce(force.copy().multiply(f));
-          dst.getBody().applyForce(force.copy().multiply(-f));
+          applyForce(src, force.copy().multiply(f));
+          applyForce(dst, force.copy().multiply(-f));
           return DoubleRange.UNIT.clip(f);
         }
       }
@@ -152,6 +331,35 @@ public class Dyn4JEngine extends AbstractEngine {
     );
   }
 
+  private Joint<org.dyn4j.dynamics.Body> createJoint(
+      BodyAnchor src,
+      BodyAnchor dst,
+      Anchor.Link.Type type,
+      double restDistance
+  ) {
+    if (Anchor.Link.Type.SOFT.equals(type)) {
+      DistanceJoint<org.dyn4j.dynamics.Body> springJoint = new DistanceJoint<>(
+          simulatedBody(src),
+          simulatedBody(dst),
+          Utils.point(src.point()),
+          Utils.point(dst.point())
+      );
+      springJoint.setRestDistance(restDistance);
+      springJoint.setCollisionAllowed(true);
+      springJoint.setFrequency(configuration.softLinkSpringF);
+      springJoint.setDampingRatio(configuration.softLinkSpringD);
+      return springJoint;
+    }
+    return new WeldJoint<>(
+        simulatedBody(src),
+        simulatedBody(dst),
+        new Vector2(
+            src.point().x(),
+            src.point().y()
+        )
+    );
+  }
+
   private Anchor.Link createLink(CreateLink action, Agent agent) throws IllegalActionException {
     if (action.source().links().stream().anyMatch(l -> l.destination()
         .anchorable()
@@ -161,36 +369,27 @@ public class Dyn4JEngine extends AbstractEngine {
     }
     if (action.source() instanceof BodyAnchor src) {
       if (action.destination() instanceof BodyAnchor dst) {
-        Joint<org.dyn4j.dynamics.Body> joint;
-        if (Anchor.Link.Type.RIGID.equals(action.type())) {
-          joint = new WeldJoint<>(
-              src.getBody(),
-              dst.getBody(),
-              new Vector2(
-                  src.point().x(),
-                  src.point().y()
-              )
-          );
-        } else if (Anchor.Link.Type.SOFT.equals(action.type())) {
-          double d = PolyUtils.minAnchorDistance(
+        double restDistance = 0d;
+        if (Anchor.Link.Type.SOFT.equals(action.type())) {
+          restDistance = PolyUtils.minAnchorDistance(
               action.source(),
               action.destination()
           ) * configuration.softLinkRestDistanceRatio;
-          DistanceJoint<org.dyn4j.dynamics.Body> springJoint = new DistanceJoint<>(
-              src.getBody(),
-              dst.getBody(),
-              Utils.point(src.point()),
-              Utils.point(dst.point())
-          );
-          springJoint.setRestDistance(d);
-          springJoint.setCollisionAllowed(true);
-          springJoint.setFrequency(configuration.softLinkSpringF);
-          springJoint.setDampingRatio(configuration.softLinkSpringD);
-          joint = springJoint;
-        } else {
+        } else if (!Anchor.Link.Type.RIGID.equals(action.type())) {
           throw new IllegalActionException(action, String.format("Unsupported link type: %s", action.type()));
         }
+        //linked rigid bodies are (re)fused at the next tick
+        if (rigidBodyFusion && src.anchorable() instanceof RigidBody srcRigidBody
+            && dst.anchorable() instanceof RigidBody dstRigidBody) {
+          unfuse(srcRigidBody);
+          unfuse(dstRigidBody);
+          unfusedRigidBodies.add(srcRigidBody);
+          unfusedRigidBodies.add(dstRigidBody);
+        }
+        Joint<org.dyn4j.dynamics.Body> joint = createJoint(src, dst, action.type(), restDistance);
         world.addJoint(joint);
+        //a new link usually pulls bodies: start with the shortest steps
+        stepUnits = 1;
         Anchor.Link link = new Anchor.Link(src, dst, action.type());
         src.getJointMap().put(link, joint);
         dst.getJointMap().put(link.reversed(), joint);
@@ -242,7 +441,43 @@ public class Dyn4JEngine extends AbstractEngine {
     return rotationalJoint;
   }
 
+  private TerrainBody createTerrainBody(CreateTerrainBody action, Agent agent) {
+    TerrainBody terrainBody = new TerrainBody(
+        action.poly(),
+        action.anchorsDensity(),
+        configuration.unmovableBodyFriction,
+        configuration.unmovableBodyRestitution,
+        configuration.anchorSideDistance,
+        action.chunkW(),
+        action.windowPadding()
+    );
+    terrainBody.getBodies().forEach(world::addBody);
+    bodies.add(terrainBody);
+    if (terrainBody.isStreamed()) {
+      updateTerrainChunks();
+    }
+    return terrainBody;
+  }
+
   private UnmovableBody createUnmovableBody(CreateUnmovableBody action, Agent agent) {
+    //only terrains are cached
+    UnmovableBodyKey key = action.terrain() == null ? null : new UnmovableBodyKey(
+        action.terrain(),
+        action.anchorsDensity()
+    );
+    UnmovableBody cached = key == null ? null : unmovableBodies.get(key);
+    if (cached != null && unclaimedUnmovableBodies.remove(cached)) {
+      //kept in the world since last reset, possibly moved
+      cached.resetTransform();
+      bodies.add(cached);
+      return cached;
+    }
+    if (cached != null && !bodies.contains(cached)) {
+      cached.resetTransform();
+      cached.getBodies().forEach(world::addBody);
+      bodies.add(cached);
+      return cached;
+    }
     UnmovableBody unmovableBody = new UnmovableBody(
         action.poly(),
         action.anchorsDensity(),
@@ -252,10 +487,14 @@ public class Dyn4JEngine extends AbstractEngine {
     );
     unmovableBody.getBodies().forEach(world::addBody);
     bodies.add(unmovableBody);
+    if (key != null && cached == null) {
+      unmovableBodies.put(key, unmovableBody);
+    }
     return unmovableBody;
   }
 
   private Voxel createVoxel(CreateVoxel action, Agent agent) {
+    boolean lightweight = voxelModel.equals(VoxelModel.LIGHTWEIGHT);
     Voxel voxel = new Voxel(
         action.sideLength(),
         action.mass(),
@@ -266,7 +505,8 @@ public class Dyn4JEngine extends AbstractEngine {
         configuration.voxelAngularDamping,
         configuration.voxelVertexMassSideLengthRatio,
         action.material().areaRatioRange(),
-        configuration.voxelSpringScaffoldings
+        lightweight ? LIGHTWEIGHT_VOXEL_SPRING_SCAFFOLDINGS : configuration.voxelSpringScaffoldings,
+        lightweight ? 0d : Voxel.CENTRAL_MASS_RATIO
     );
     voxel.getBodies().forEach(world::addBody);
     voxel.getJoints().forEach(world::addJoint);
@@ -276,13 +516,29 @@ public class Dyn4JEngine extends AbstractEngine {
 
   private Collection<Body> findInContactBodies(FindInContactBodies action, Agent agent) throws IllegalActionException {
     if (action.body() instanceof MultipartBody multipartBody) {
-      return multipartBody.getBodies().stream()
-          .map(b -> world.getInContactBodies(b, false))
-          .flatMap(Collection::stream)
-          .filter(b -> !multipartBody.getBodies()
-              .contains(b) && b.getUserData() != null && b.getUserData() instanceof Body)
-          .map(b -> (Body) b.getUserData())
-          .collect(Collectors.toList());
+      //contacts are resolved through the touching fixtures, as a compound body stands for all the fused rigid bodies
+      Collection<org.dyn4j.dynamics.Body> simulatedBodies = simulatedBodies(multipartBody);
+      List<Body> inContactBodies = new ArrayList<>();
+      for (org.dyn4j.dynamics.Body simulatedBody : simulatedBodies) {
+        Set<Body> localInContactBodies = new LinkedHashSet<>();
+        for (ContactConstraint<org.dyn4j.dynamics.Body> contact : world.getContacts(simulatedBody)) {
+          if (contact.isSensor()) {
+            continue;
+          }
+          boolean isFirst = contact.getBody1() == simulatedBody;
+          org.dyn4j.dynamics.Body otherBody = isFirst ? contact.getBody2() : contact.getBody1();
+          if (simulatedBodies.contains(otherBody)
+              || owner(simulatedBody, isFirst ? contact.getFixture1() : contact.getFixture2()) != action.body()) {
+            continue;
+          }
+          Body owner = owner(otherBody, isFirst ? contact.getFixture2() : contact.getFixture1());
+          if (owner != null) {
+            localInContactBodies.add(owner);
+          }
+        }
+        inContactBodies.addAll(localInContactBodies);
+      }
+      return inContactBodies;
     }
     throw new IllegalActionException(
         action,
@@ -290,6 +546,49 @@ public class Dyn4JEngine extends AbstractEngine {
     );
   }
 
+  private void fuse(List<RigidBody> rigidBodies) {
+    CompoundBody compoundBody = new CompoundBody(rigidBodies);
+    for (RigidBody rigidBody : rigidBodies) {
+      world.removeBody(rigidBody.getBody());
+      compoundBodies.put(rigidBody, compoundBody);
+    }
+    world.addBody(compoundBody.getBody());
+    relink(rigidBodies);
+  }
+
+  private void fuseRigidBodies() {
+    List<RigidBody> rigidBodies = List.copyOf(unfusedRigidBodies);
+    unfusedRigidBodies.clear();
+    Set<RigidBody> visited = new HashSet<>();
+    for (RigidBody rigidBody : rigidBodies) {
+      if (visited.contains(rigidBody) || compoundBodies.containsKey(rigidBody)) {
+        continue;
+      }
+      //find the group of rigid bodies linked rigidly, directly or indirectly, to this one
+      List<RigidBody> group = new ArrayList<>();
+      Deque<RigidBody> toVisit = new ArrayDeque<>();
+      toVisit.add(rigidBody);
+      visited.add(rigidBody);
+      while (!toVisit.isEmpty()) {
+        RigidBody current = toVisit.poll();
+        unfuse(current);
+        group.add(current);
+        for (Anchor anchor : current.anchors()) {
+          for (Anchor.Link link : anchor.links()) {
+            if (Anchor.Link.Type.RIGID.equals(link.type())
+                && link.destination().anchorable() instanceof RigidBody other
+                && visited.add(other)) {
+              toVisit.add(other);
+            }
+          }
+        }
+      }
+      if (group.size() > 1) {
+        fuse(group);
+      }
+    }
+  }
+
   @Override
   protected Collection<Body> getBodies() {
     return bodies;
@@ -297,21 +596,59 @@ public class Dyn4JEngine extends AbstractEngine {
 
   @Override
   protected double innerTick() {
-    //control rotational joint
-    bodies.forEach(b -> {
-      if (b instanceof Actuable actuable) {
-        actuable.actuate(t(), t() - configuration.innerSettings().getStepFrequency());
+    //remove static bodies kept after reset but not created again
+    if (!unclaimedUnmovableBodies.isEmpty()) {
+      unclaimedUnmovableBodies.forEach(b -> b.getBodies().forEach(world::removeBody));
+      unclaimedUnmovableBodies.clear();
+    }
+    //index again the bodies kept after reset, in world order, so that collisions are found as in a new engine
+    if (broadphaseOutdated) {
+      world.getBroadphaseDetector().clear();
+      for (int i = 0; i < world.getBodyCount(); i++) {
+        world.getBroadphaseDetector().add(world.getBody(i));
       }
-    });
-    //tick
-    world.step(1);
-    return t() + configuration.innerSettings().getStepFrequency();
+      broadphaseOutdated = false;
+    }
+    //stream terrain chunks
+    updateTerrainChunks();
+    //fuse rigidly linked rigid bodies
+    if (!unfusedRigidBodies.isEmpty()) {
+      fuseRigidBodies();
+    }
+    //tick, possibly in shorter steps
+    double dT = world.getSettings().getStepFrequency();
+    if (!adaptiveStepping.isEnabled()) {
+      step(t(), dT);
+      updateCounters();
+      return t() + dT;
+    }
+    //durations are in units of the shortest step, so that steps always tile the tick
+    int tickUnits = 1 << adaptiveStepping.maxHalvings();
+    int doneUnits = 0;
+    boolean quiet = true;
+    while (doneUnits < tickUnits) {
+      int units = Math.min(stepUnits, tickUnits - doneUnits);
+      double error = adaptiveStep(t() + dT * doneUnits / tickUnits, dT * units / tickUnits);
+      doneUnits = doneUnits + units;
+      if (error >= adaptiveStepping.tolerance()) {
+        quiet = false;
+        stepUnits = Math.max(1, stepUnits / 2);
+      } else if (error >= adaptiveStepping.tolerance() / 4d) {
+        quiet = false;
+      }
+    }
+    if (quiet) {
+      stepUnits = Math.min(tickUnits, 2 * stepUnits);
+    }
+    updateCounters();
+    return t() + dT;
   }
 
   @Override
   protected void registerActionSolvers() {
     registerActionSolver(CreateRigidBody.class, this::createRigidBody);
     registerActionSolver(CreateUnmovableBody.class, this::createUnmovableBody);
+    registerActionSolver(CreateTerrainBody.class, this::createTerrainBody);
     registerActionSolver(TranslateBody.class, this::translateBody);
     registerActionSolver(RotateBody.class, this::rotateBody);
     registerActionSolver(CreateVoxel.class, this::createVoxel);
@@ -324,15 +661,53 @@ public class Dyn4JEngine extends AbstractEngine {
     registerActionSolver(AttractAnchor.class, this::attractAnchor);
     registerActionSolver(SenseDistanceToBody.class, this::senseDistanceToBody);
     registerActionSolver(FindInContactBodies.class, this::findInContactBodies);
+    registerBatchActionSolver(SenseDistanceToBody.class, this::senseDistancesToBody);
     super.registerActionSolvers();
   }
 
+  //recreates the joints of the links of the given rigid bodies on the bodies currently simulating them
+  private void relink(Collection<RigidBody> rigidBodies) {
+    Set<Joint<org.dyn4j.dynamics.Body>> relinkedJoints = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (RigidBody rigidBody : rigidBodies) {
+      for (Anchor anchor : rigidBody.anchors()) {
+        BodyAnchor src = (BodyAnchor) anchor;
+        for (Map.Entry<Anchor.Link, Joint<org.dyn4j.dynamics.Body>> entry : new ArrayList<>(src.getJointMap()
+            .entrySet())) {
+          Anchor.Link link = entry.getKey();
+          Joint<org.dyn4j.dynamics.Body> oldJoint = entry.getValue();
+          if (!relinkedJoints.add(oldJoint) || !(link.destination() instanceof BodyAnchor dst)) {
+            continue;
+          }
+          world.removeJoint(oldJoint);
+          //links within a compound body are kept, out of the world, until it is split
+          if (simulatedBody(src) != simulatedBody(dst)) {
+            Joint<org.dyn4j.dynamics.Body> joint = createJoint(
+                src,
+                dst,
+                link.type(),
+                oldJoint instanceof DistanceJoint<org.dyn4j.dynamics.Body> distanceJoint ?
+                    distanceJoint.getRestDistance() : 0d
+            );
+            relinkedJoints.add(joint);
+            world.addJoint(joint);
+            src.getJointMap().put(link, joint);
+            dst.getJointMap().put(link.reversed(), joint);
+          }
+        }
+      }
+    }
+  }
+
   private Body removeBody(RemoveBody action, Agent agent) throws IllegalActionException {
     //detach
     if (action.body() instanceof Anchorable anchorable) {
       perform(new DetachAllAnchorsFromAnchorable(anchorable), agent);
     }
     //remove
+    if (action.body() instanceof RigidBody rigidBody) {
+      unfuse(rigidBody);
+      unfusedRigidBodies.remove(rigidBody);
+    }
     if (action.body() instanceof MultipartBody multipartBody) {
       multipartBody.getJoints().forEach(world::removeJoint);
       multipartBody.getBodies().forEach(world::removeBody);
@@ -348,6 +723,13 @@ public class Dyn4JEngine extends AbstractEngine {
   private Anchor.Link removeLink(RemoveLink action, Agent agent) throws IllegalActionException {
     if (action.link().source() instanceof BodyAnchor srcAnchor) {
       if (action.link().destination() instanceof BodyAnchor dstAnchor) {
+        //split compound bodies, which will be fused again at the next tick if still linked
+        if (srcAnchor.anchorable() instanceof RigidBody srcRigidBody) {
+          unfuse(srcRigidBody);
+        }
+        if (dstAnchor.anchorable() instanceof RigidBody dstRigidBody) {
+          unfuse(dstRigidBody);
+        }
         //remove joint from world
         world.removeJoint(srcAnchor.getJointMap().get(action.link()));
         //remove link from maps
@@ -367,6 +749,9 @@ public class Dyn4JEngine extends AbstractEngine {
   }
 
   private Body rotateBody(RotateBody action, Agent agent) throws IllegalActionException {
+    if (action.body() instanceof RigidBody rigidBody) {
+      unfuse(rigidBody);
+    }
     if (action.body() instanceof MultipartBody multipartBody) {
       multipartBody.getBodies().forEach(b -> b.rotate(action.angle(), action.point().x(), action.point().y()));
       return action.body();
@@ -394,11 +779,176 @@ public class Dyn4JEngine extends AbstractEngine {
     return results.stream().mapToDouble(r -> r.getRaycast().getDistance()).min().orElse(action.distanceRange());
   }
 
+  @Override
+  protected boolean isHealthy() {
+    double maxSquaredLinearSpeed = configuration.maxBodyLinearSpeed * configuration.maxBodyLinearSpeed;
+    for (int i = 0; i < world.getBodyCount(); i++) {
+      org.dyn4j.dynamics.Body body = world.getBody(i);
+      //negated comparisons are false also for NaN
+      if (!(body.getLinearVelocity().getMagnitudeSquared() <= maxSquaredLinearSpeed)
+          || !(Math.abs(body.getAngularVelocity()) <= configuration.maxBodyAngularSpeed)
+          || !Double.isFinite(body.getTransform().getTranslationX())
+          || !Double.isFinite(body.getTransform().getTranslationY())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void reset() {
+    //cached static bodies stay in the world, unlinked, until the next tick
+    world.removeAllJoints();
+    new HashSet<>(compoundBodies.values()).forEach(c -> world.removeBody(c.getBody()));
+    compoundBodies.clear();
+    unfusedRigidBodies.clear();
+    stepUnits = 1 << adaptiveStepping.maxHalvings();
+    broadphaseOutdated = true;
+    for (Body body : bodies) {
+      if (body instanceof UnmovableBody unmovableBody && unmovableBodies.containsValue(unmovableBody)) {
+        unmovableBody.anchors().forEach(a -> ((BodyAnchor) a).getJointMap().clear());
+        unclaimedUnmovableBodies.add(unmovableBody);
+      } else if (body instanceof MultipartBody multipartBody) {
+        multipartBody.getBodies().forEach(world::removeBody);
+      }
+    }
+    super.reset();
+  }
+
+  private List<Double> senseDistancesToBody(List<SenseDistanceToBody> actions, Agent agent) {
+    //center, angle, and filter are computed once for consecutive actions on the same body
+    List<Double> distances = new ArrayList<>(actions.size());
+    Body body = null;
+    Vector2 center = null;
+    double angle = 0d;
+    DetectFilter<org.dyn4j.dynamics.Body, BodyFixture> filter = null;
+    for (SenseDistanceToBody action : actions) {
+      if (action.body() != body) {
+        body = action.body();
+        center = Utils.point(body.poly().center());
+        angle = body.angle();
+        filter = new DetectFilter<>(true, true, new BodyOwnerFilter(body));
+      }
+      List<RaycastResult<org.dyn4j.dynamics.Body, BodyFixture>> results = world.raycast(
+          new Ray(center, action.direction() + angle),
+          action.distanceRange(),
+          filter
+      );
+      distances.add(results.stream()
+          .mapToDouble(r -> r.getRaycast().getDistance())
+          .min()
+          .orElse(action.distanceRange()));
+    }
+    return distances;
+  }
+
+  @Override
+  public void setAdaptiveStepping(AdaptiveStepping adaptiveStepping) {
+    this.adaptiveStepping = adaptiveStepping;
+    stepUnits = 1 << adaptiveStepping.maxHalvings();
+  }
+
+  @Override
+  public void setCollisionPipeline(CollisionPipeline collisionPipeline) {
+    switch (collisionPipeline.broadphase()) {
+      case DYNAMIC_AABB_TREE -> world.setBroadphaseDetector(new CollisionItemBroadphaseDetectorAdapter<>(
+          new DynamicAABBTree<>(
+              new CollisionItemBroadphaseFilter<>(),
+              new CollisionItemAABBProducer<>(),
+              new StaticValueAABBExpansionMethod<>(collisionPipeline.aabbExpansion())
+          )
+      ));
+      case SWEEP_AND_PRUNE -> world.setBroadphaseDetector(new CollisionItemBroadphaseDetectorAdapter<>(
+          new Sap<>(
+              new CollisionItemBroadphaseFilter<>(),
+              new CollisionItemAABBProducer<>(),
+              new StaticValueAABBExpansionMethod<>(collisionPipeline.aabbExpansion())
+          )
+      ));
+    }
+    switch (collisionPipeline.narrowphase()) {
+      case GJK -> world.setNarrowphaseDetector(new Gjk());
+      case SAT -> world.setNarrowphaseDetector(new Sat());
+    }
+  }
+
+  @Override
+  public void setFidelityProfile(FidelityProfile fidelityProfile) {
+    world.setSettings(withSleepPolicy(getSettings(configuration.innerSettings(), fidelityProfile), sleepPolicy));
+  }
+
+  @Override
+  public void setRigidBodyFusion(boolean rigidBodyFusion) {
+    this.rigidBodyFusion = rigidBodyFusion;
+    if (rigidBodyFusion) {
+      bodies.stream().filter(b -> b instanceof RigidBody).forEach(b -> unfusedRigidBodies.add((RigidBody) b));
+    } else {
+      List.copyOf(compoundBodies.keySet()).forEach(this::unfuse);
+      unfusedRigidBodies.clear();
+    }
+  }
+
+  @Override
+  public void setSleepPolicy(SleepPolicy sleepPolicy) {
+    this.sleepPolicy = sleepPolicy;
+    world.setSettings(withSleepPolicy(world.getSettings(), sleepPolicy));
+  }
+
+  @Override
+  public void setVoxelModel(VoxelModel voxelModel) {
+    this.voxelModel = voxelModel;
+  }
+
+  private org.dyn4j.dynamics.Body simulatedBody(BodyAnchor anchor) {
+    if (anchor.anchorable() instanceof RigidBody rigidBody) {
+      CompoundBody compoundBody = compoundBodies.get(rigidBody);
+      if (compoundBody != null) {
+        return compoundBody.getBody();
+      }
+    }
+    return anchor.getBody();
+  }
+
+  //the body owning the fixture: the fused rigid body, for compound bodies, or the one owning the dyn4j body
+  private static Body owner(org.dyn4j.dynamics.Body body, BodyFixture fixture) {
+    if (fixture.getUserData() instanceof Body owner) {
+      return owner;
+    }
+    return body.getUserData() instanceof Body owner ? owner : null;
+  }
+
+  private Collection<org.dyn4j.dynamics.Body> simulatedBodies(MultipartBody multipartBody) {
+    if (multipartBody instanceof RigidBody rigidBody && compoundBodies.containsKey(rigidBody)) {
+      return List.of(compoundBodies.get(rigidBody).getBody());
+    }
+    return multipartBody.getBodies();
+  }
+
+  private void step(double t, double dT) {
+    //control rotational joint
+    bodies.forEach(b -> {
+      if (b instanceof Actuable actuable) {
+        actuable.actuate(t, t - dT);
+      }
+    });
+    world.step(1, dT);
+    for (Map.Entry<RigidBody, CompoundBody> entry : compoundBodies.entrySet()) {
+      //each compound body is updated once, through its first part
+      if (entry.getValue().getParts().iterator().next() == entry.getKey()) {
+        entry.getValue().updateParts();
+      }
+    }
+    addToCounter(EngineSnapshot.CounterType.PHYSICS_STEP, 1);
+  }
+
   private Body translateBody(TranslateBody action, Agent agent) throws IllegalActionException {
     Point t = new Point(
         action.translation().x(),
         action.translation().y()
     );
+    if (action.body() instanceof RigidBody rigidBody) {
+      unfuse(rigidBody);
+    }
     if (action.body() instanceof MultipartBody multipartBody) {
       multipartBody.getBodies().forEach(b -> b.translate(t.x(), t.y()));
       return action.body();
@@ -409,4 +959,71 @@ public class Dyn4JEngine extends AbstractEngine {
     );
   }
 
+  private void unfuse(RigidBody rigidBody) {
+    CompoundBody compoundBody = compoundBodies.get(rigidBody);
+    if (compoundBody == null) {
+      return;
+    }
+    world.removeBody(compoundBody.getBody());
+    for (RigidBody part : compoundBody.getParts()) {
+      compoundBodies.remove(part);
+      world.addBody(part.getBody());
+      unfusedRigidBodies.add(part);
+    }
+    relink(compoundBody.getParts());
+  }
+
+  private void updateCounters() {
+    int[] counts = new int[2];
+    world.getCollisionDataIterator().forEachRemaining(d -> {
+      if (d.isBroadphaseCollision()) {
+        counts[0] = counts[0] + 1;
+      }
+      if (d.isManifoldCollision()) {
+        counts[1] = counts[1] + 1;
+      }
+    });
+    addToCounter(EngineSnapshot.CounterType.BROADPHASE_PAIR, counts[0]);
+    addToCounter(EngineSnapshot.CounterType.CONTACT_PAIR, counts[1]);
+    if (sleepPolicy.isEnabled()) {
+      int nOfSleepingBodies = 0;
+      for (int i = 0; i < world.getBodyCount(); i++) {
+        org.dyn4j.dynamics.Body body = world.getBody(i);
+        if (body.isAtRest() && !body.getMass().getType().equals(MassType.INFINITE)) {
+          nOfSleepingBodies = nOfSleepingBodies + 1;
+        }
+      }
+      addToCounter(EngineSnapshot.CounterType.SLEEPING_BODY, nOfSleepingBodies);
+    }
+  }
+
+  private void updateTerrainChunks() {
+    List<TerrainBody> streamedTerrainBodies = null;
+    for (Body body : bodies) {
+      if (body instanceof TerrainBody terrainBody && terrainBody.isStreamed()) {
+        if (streamedTerrainBodies == null) {
+          streamedTerrainBodies = new ArrayList<>();
+        }
+        streamedTerrainBodies.add(terrainBody);
+      }
+    }
+    if (streamedTerrainBodies == null) {
+      return;
+    }
+    //the window is around the centers of the moving bodies
+    double minX = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < world.getBodyCount(); i++) {
+      org.dyn4j.dynamics.Body body = world.getBody(i);
+      if (!body.getMass().getType().equals(MassType.INFINITE)) {
+        double x = body.getWorldCenter().x;
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x);
+      }
+    }
+    for (TerrainBody terrainBody : streamedTerrainBodies) {
+      terrainBody.updateChunks(world, minX, maxX);
+    }
+  }
+
 }
@@ -108,6 +108,10 @@ public class RigidBody implements io.github.ericmedvet.mrsim2d.core.bodies.Rigid
     );
   }
 
+  protected Body getBody() {
+    return body;
+  }
+
   @Override
   public Collection<Body> getBodies() {
     return List.of(body);
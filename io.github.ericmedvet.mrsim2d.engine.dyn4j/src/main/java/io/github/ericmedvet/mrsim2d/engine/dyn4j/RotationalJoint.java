@@ -152,7 +152,7 @@ public class RotationalJoint implements io.github.ericmedvet.mrsim2d.core.bodies
     lastAngleError = angleError;
     //check if need to control
     if (Math.abs(angleError) < motor.angleTolerance()) {
-      joint.setMotorSpeed(0d);
+      setMotorSpeed(0d);
       return;
     }
     //control
@@ -164,7 +164,16 @@ public class RotationalJoint implements io.github.ericmedvet.mrsim2d.core.bodies
     } else if (motorSpeed < -motor.maxSpeed()) {
       motorSpeed = -motor.maxSpeed();
     }
-    joint.setMotorSpeed(motorSpeed);
+    setMotorSpeed(motorSpeed);
+  }
+
+  //a constant speed lets the joint sleep, a changed one wakes it up
+  private void setMotorSpeed(double motorSpeed) {
+    if (motorSpeed != joint.getMotorSpeed()) {
+      joint.setMotorSpeed(motorSpeed);
+      body1.setAtRest(false);
+      body2.setAtRest(false);
+    }
   }
 
   @Override
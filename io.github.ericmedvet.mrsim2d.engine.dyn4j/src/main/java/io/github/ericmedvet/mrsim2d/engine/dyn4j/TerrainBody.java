@@ -0,0 +1,275 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.engine.dyn4j;
+
+import io.github.ericmedvet.mrsim2d.core.bodies.Anchor;
+import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+import io.github.ericmedvet.mrsim2d.core.geometry.Segment;
+import org.dyn4j.dynamics.Body;
+import org.dyn4j.dynamics.joint.Joint;
+import org.dyn4j.geometry.Geometry;
+import org.dyn4j.geometry.Link;
+import org.dyn4j.geometry.MassType;
+import org.dyn4j.world.World;
+
+import java.util.*;
+
+/**
+ * An unmovable body whose boundary is modeled as a closed chain of segments, all fixtures of one single static body.
+ * Differently than {@link UnmovableBody}, the poly is not decomposed in convex parts.
+ * <p>
+ * If {@code chunkW} is finite, the body is instead streamed: it is split in chunks of width {@code chunkW}, each
+ * being a static body made of the parts of the sides of the poly within the chunk, as links whose ghost vertexes are
+ * those of the whole poly, so that bodies do not collide with the seams between chunks; only the chunks overlapping
+ * the x-range set with {@link #updateChunks(World, double, double)}, widened by {@code windowPadding} on both sides,
+ * are kept in the world, together with their anchors, whose links are removed when their chunk is removed.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class TerrainBody implements io.github.ericmedvet.mrsim2d.core.bodies.UnmovableBody, MultipartBody {
+
+  private final Poly poly;
+  private final double anchorsDensity;
+  private final double friction;
+  private final double restitution;
+  private final double anchorSideDistance;
+  private final double chunkW;
+  private final double windowPadding;
+  private final double minX;
+  private final List<Segment> sides;
+  private final int[][] chunkSideIndexes;
+  private final SortedMap<Integer, Body> chunkBodies;
+  private final Map<Integer, List<Anchor>> chunkAnchors;
+
+  public TerrainBody(
+      Poly poly,
+      double anchorsDensity,
+      double friction,
+      double restitution,
+      double anchorSideDistance,
+      double chunkW,
+      double windowPadding
+  ) {
+    this.poly = poly;
+    this.anchorsDensity = anchorsDensity;
+    this.friction = friction;
+    this.restitution = restitution;
+    this.anchorSideDistance = anchorSideDistance;
+    this.chunkW = chunkW;
+    this.windowPadding = windowPadding;
+    minX = poly.boundingBox().min().x();
+    chunkBodies = new TreeMap<>();
+    chunkAnchors = new HashMap<>();
+    sides = poly.sides();
+    chunkSideIndexes = isStreamed() ? indexSides() : new int[0][];
+    if (!isStreamed()) {
+      Body body = new Body();
+      List<Link> links = Geometry.createLinks(
+          Arrays.stream(poly.vertexes()).map(Utils::point).toList(),
+          true
+      );
+      links.forEach(l -> body.addFixture(l, 1d, friction, restitution));
+      body.setMass(MassType.INFINITE);
+      body.setUserData(this);
+      chunkBodies.put(0, body);
+      chunkAnchors.put(0, createAnchors(body, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, sides));
+    }
+  }
+
+  public TerrainBody(
+      Poly poly,
+      double anchorsDensity,
+      double friction,
+      double restitution,
+      double anchorSideDistance
+  ) {
+    this(poly, anchorsDensity, friction, restitution, anchorSideDistance, Double.POSITIVE_INFINITY, 0);
+  }
+
+  //returns the rates, along the segment, of the part with x in [x1,x2], or null if none
+  private static double[] clip(Segment segment, double x1, double x2) {
+    double segmentMinX = Math.min(segment.p1().x(), segment.p2().x());
+    double segmentMaxX = Math.max(segment.p1().x(), segment.p2().x());
+    if (segmentMaxX < x1 || segmentMinX >= x2) {
+      return null;
+    }
+    if (segmentMinX == segmentMaxX) {
+      return new double[]{0, 1};
+    }
+    double dX = segment.p2().x() - segment.p1().x();
+    double r1 = (x1 - segment.p1().x()) / dX;
+    double r2 = (x2 - segment.p1().x()) / dX;
+    return new double[]{Math.max(0, Math.min(r1, r2)), Math.min(1, Math.max(r1, r2))};
+  }
+
+  @Override
+  public List<Anchor> anchors() {
+    if (!isStreamed()) {
+      return chunkAnchors.get(0);
+    }
+    List<Anchor> anchors = new ArrayList<>();
+    chunkBodies.keySet().forEach(i -> anchors.addAll(chunkAnchors.get(i)));
+    return anchors;
+  }
+
+  //anchors with x in [x1,x2), on the given sides
+  private List<Anchor> createAnchors(Body body, double x1, double x2, List<Segment> segments) {
+    if (!Double.isFinite(anchorsDensity)) {
+      return List.of();
+    }
+    List<Anchor> localAnchors = new ArrayList<>();
+    for (Segment segment : segments) {
+      double nOfAnchors = Math.max(Math.floor(segment.length() * anchorsDensity), 2);
+      for (double i = 0; i < nOfAnchors; i = i + 1) {
+        Point sidePoint = segment.pointAtRate((i + 1d) / (nOfAnchors + 1d));
+        if (sidePoint.x() >= x1 && sidePoint.x() < x2) {
+          Point aP = sidePoint.sum(new Point(segment.direction() + Math.PI / 2d).scale(anchorSideDistance));
+          localAnchors.add(new BodyAnchor(body, aP, this));
+        }
+      }
+    }
+    return Collections.unmodifiableList(localAnchors);
+  }
+
+  private Body createChunkBody(int i) {
+    double x1 = minX + i * chunkW;
+    double x2 = x1 + chunkW;
+    Point[] vertexes = poly.vertexes();
+    Body body = new Body();
+    for (int sideIndex : chunkSideIndexes[i]) {
+      Segment side = sides.get(sideIndex);
+      double[] rates = clip(side, x1, x2);
+      if (rates == null || rates[0] >= rates[1] || side.length() == 0) {
+        continue;
+      }
+      //ghost vertexes are on the same side, if clipped, or are the adjacent vertexes of the poly
+      Point previous = rates[0] > 0 ? side.p1() : vertexes[(sideIndex - 1 + vertexes.length) % vertexes.length];
+      Point next = rates[1] < 1 ? side.p2() : vertexes[(sideIndex + 2) % vertexes.length];
+      body.addFixture(
+          new Link(
+              Utils.point(previous),
+              Utils.point(side.pointAtRate(rates[0])),
+              Utils.point(side.pointAtRate(rates[1])),
+              Utils.point(next)
+          ),
+          1d,
+          friction,
+          restitution
+      );
+    }
+    body.setMass(MassType.INFINITE);
+    body.setUserData(this);
+    return body;
+  }
+
+  @Override
+  public Collection<Body> getBodies() {
+    return List.copyOf(chunkBodies.values());
+  }
+
+  @Override
+  public Collection<Joint<Body>> getJoints() {
+    return List.of();
+  }
+
+  //for each chunk, the indexes of the sides overlapping it
+  private int[][] indexSides() {
+    int nOfChunks = (int) Math.floor((poly.boundingBox().max().x() - minX) / chunkW) + 1;
+    List<List<Integer>> lists = new ArrayList<>(nOfChunks);
+    for (int i = 0; i < nOfChunks; i++) {
+      lists.add(new ArrayList<>());
+    }
+    for (int j = 0; j < sides.size(); j++) {
+      Segment side = sides.get(j);
+      int fromI = (int) Math.floor((Math.min(side.p1().x(), side.p2().x()) - minX) / chunkW);
+      int toI = (int) Math.floor((Math.max(side.p1().x(), side.p2().x()) - minX) / chunkW);
+      for (int i = fromI; i <= toI; i++) {
+        lists.get(i).add(j);
+      }
+    }
+    return lists.stream().map(l -> l.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+  }
+
+  public boolean isStreamed() {
+    return Double.isFinite(chunkW);
+  }
+
+  @Override
+  public Poly poly() {
+    if (isStreamed()) {
+      return poly;
+    }
+    // assuming it can only be translated
+    Point t = Utils.point(chunkBodies.get(0).getTransform().getTranslation());
+    return new Poly(Arrays.stream(poly.vertexes())
+        .map(p -> p.sum(t))
+        .toArray(Point[]::new));
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s at %s", this.getClass().getSimpleName(), poly().center());
+  }
+
+  /**
+   * Keeps in the world only the chunks overlapping the padded window around {@code [rangeMinX, rangeMaxX]}, adding
+   * and removing chunk bodies as needed. Does nothing if this body is not streamed.
+   */
+  void updateChunks(World<Body> world, double rangeMinX, double rangeMaxX) {
+    if (!isStreamed()) {
+      return;
+    }
+    int minI = (int) Math.max(-1, Math.floor((rangeMinX - windowPadding - minX) / chunkW));
+    int maxI = (int) Math.min(Integer.MAX_VALUE - 1, Math.floor((rangeMaxX + windowPadding - minX) / chunkW));
+    Iterator<Map.Entry<Integer, Body>> iterator = chunkBodies.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, Body> entry = iterator.next();
+      if (entry.getKey() < minI || entry.getKey() > maxI) {
+        //remove the links of the anchors, also from the anchors on the other side
+        for (Anchor anchor : chunkAnchors.remove(entry.getKey())) {
+          if (anchor instanceof BodyAnchor bodyAnchor) {
+            for (Map.Entry<Anchor.Link, Joint<Body>> linkEntry : bodyAnchor.getJointMap().entrySet()) {
+              if (world.containsJoint(linkEntry.getValue())) {
+                world.removeJoint(linkEntry.getValue());
+              }
+              if (linkEntry.getKey().destination() instanceof BodyAnchor dstAnchor) {
+                dstAnchor.getJointMap().remove(linkEntry.getKey().reversed());
+              }
+            }
+            bodyAnchor.getJointMap().clear();
+          }
+        }
+        world.removeBody(entry.getValue());
+        iterator.remove();
+      }
+    }
+    for (int i = Math.max(0, minI); i <= maxI && i < chunkSideIndexes.length; i++) {
+      if (!chunkBodies.containsKey(i)) {
+        Body body = createChunkBody(i);
+        world.addBody(body);
+        chunkBodies.put(i, body);
+        chunkAnchors.put(i, createAnchors(
+            body,
+            minX + i * chunkW,
+            minX + (i + 1) * chunkW,
+            Arrays.stream(chunkSideIndexes[i]).mapToObj(sides::get).toList()
+        ));
+      }
+    }
+  }
+}
@@ -102,6 +102,11 @@ public class UnmovableBody implements io.github.ericmedvet.mrsim2d.core.bodies.U
     return List.of();
   }
 
+  //bodies are built with the identity transform, as their fixtures are in world coordinates
+  protected void resetTransform() {
+    bodies.forEach(b -> b.getTransform().identity());
+  }
+
   @Override
   public Poly poly() {
     // assuming it can only be translated, we just check diff wrt initial center
@@ -41,7 +41,7 @@ public class Voxel implements io.github.ericmedvet.mrsim2d.core.bodies.Voxel, Mu
 
   protected static final DoubleRange SPRING_F_RANGE = new DoubleRange(2d, 10d);
   protected static final double SPRING_D = 0.3d;
-  private static final double CENTRAL_MASS_RATIO = 0.5d;
+  protected static final double CENTRAL_MASS_RATIO = 0.5d;
   private static final DoubleFunction<Convex> MASS_SHAPE_PROVIDER = l -> new Circle(l / 2d);
   protected final Map<Vertex, Body> vertexes;
   protected final List<Body> otherBodies;
@@ -58,6 +58,7 @@ public class Voxel implements io.github.ericmedvet.mrsim2d.core.bodies.Voxel, Mu
   private final double vertexMassSideLengthRatio;
   private final DoubleRange areaRatioActiveRange;
   private final EnumSet<SpringScaffolding> springScaffoldings;
+  private final double centralMassRatio;
   private final Vector2 initialSidesAverageDirection;
 
   public Voxel(
@@ -70,7 +71,8 @@ public class Voxel implements io.github.ericmedvet.mrsim2d.core.bodies.Voxel, Mu
       double angularDamping,
       double vertexMassSideLengthRatio,
       DoubleRange areaRatioActiveRange,
-      EnumSet<SpringScaffolding> springScaffoldings
+      EnumSet<SpringScaffolding> springScaffoldings,
+      double centralMassRatio
   ) {
     this.sideLength = sideLength;
     this.mass = mass;
@@ -82,6 +84,7 @@ public class Voxel implements io.github.ericmedvet.mrsim2d.core.bodies.Voxel, Mu
     this.vertexMassSideLengthRatio = vertexMassSideLengthRatio;
     this.areaRatioActiveRange = areaRatioActiveRange;
     this.springScaffoldings = springScaffoldings;
+    this.centralMassRatio = centralMassRatio;
     vertexes = new EnumMap<>(Vertex.class);
     sideJoints = new EnumMap<>(Side.class);
     otherBodies = new ArrayList<>();
@@ -127,17 +130,30 @@ public class Voxel implements io.github.ericmedvet.mrsim2d.core.bodies.Voxel, Mu
     }
   }
 
+  private static boolean actuate(DistanceJoint<Body> joint, double v) {
+    Voxel.SpringRange range = (SpringRange) joint.getUserData();
+    double restDistance;
+    if (v >= 0) { // shrink
+      restDistance = range.rest - (range.rest - range.min) * v;
+    } else if (v < 0) { // expand
+      restDistance = range.rest + (range.max - range.rest) * -v;
+    } else {
+      return false;
+    }
+    if (restDistance == joint.getRestDistance()) {
+      return false;
+    }
+    joint.setRestDistance(restDistance);
+    return true;
+  }
+
   protected void actuate(EnumMap<Side, Double> sideValues) {
+    boolean changed = false;
     //apply on sides
     for (Map.Entry<Side, Double> sideEntry : sideValues.entrySet()) {
       double v = DoubleRange.SYMMETRIC_UNIT.clip(sideEntry.getValue());
       for (DistanceJoint<Body> joint : sideJoints.get(sideEntry.getKey())) {
-        Voxel.SpringRange range = (SpringRange) joint.getUserData();
-        if (v >= 0) { // shrink
-          joint.setRestDistance(range.rest - (range.rest - range.min) * v);
-        } else if (v < 0) { // expand
-          joint.setRestDistance(range.rest + (range.max - range.rest) * -v);
-        }
+        changed = actuate(joint, v) || changed;
       }
     }
     //apply on central
@@ -146,12 +162,12 @@ public class Voxel implements io.github.ericmedvet.mrsim2d.core.bodies.Voxel, Mu
         .average()
         .orElse(0d);
     for (DistanceJoint<Body> joint : centralJoints) {
-      Voxel.SpringRange range = (SpringRange) joint.getUserData();
-      if (v >= 0) { // shrink
-        joint.setRestDistance(range.rest - (range.rest - range.min) * v);
-      } else if (v < 0) { // expand
-        joint.setRestDistance(range.rest + (range.max - range.rest) * -v);
-      }
+      changed = actuate(joint, v) || changed;
+    }
+    //a constant actuation lets the voxel sleep, a changed one wakes it up
+    if (changed) {
+      vertexes.values().forEach(b -> b.setAtRest(false));
+      otherBodies.forEach(b -> b.setAtRest(false));
     }
   }
 
@@ -219,7 +235,7 @@ public class Voxel implements io.github.ericmedvet.mrsim2d.core.bodies.Voxel, Mu
   protected void assemble() {
     //compute densities
     double massSideLength = sideLength * vertexMassSideLengthRatio;
-    double density = (mass * (1d - CENTRAL_MASS_RATIO) / 4d) / (massSideLength * massSideLength);
+    double density = (mass * (1d - centralMassRatio) / 4d) / (massSideLength * massSideLength);
     //build bodies
     vertexes.put(Vertex.NW, new Body()); // 0
     vertexes.put(Vertex.NE, new Body()); // 1
@@ -417,12 +433,11 @@ public class Voxel implements io.github.ericmedvet.mrsim2d.core.bodies.Voxel, Mu
     //set collision filter
     getBodies().forEach(b -> b.getFixtures().forEach(f -> f.setFilter(new VoxelFilter(this, BodyType.VERTEX))));
     //add central mass
-    //noinspection ConstantConditions
-    if (CENTRAL_MASS_RATIO > 0) {
+    if (centralMassRatio > 0) {
       Body centralMass = new Body();
       centralMass.addFixture(
           new Circle(activeSideRange.min() / 2d),
-          mass * CENTRAL_MASS_RATIO,
+          mass * centralMassRatio,
           friction,
           restitution
       );
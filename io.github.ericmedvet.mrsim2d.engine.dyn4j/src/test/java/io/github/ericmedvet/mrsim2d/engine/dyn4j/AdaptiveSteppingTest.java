@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.engine.dyn4j;
+
+import io.github.ericmedvet.mrsim2d.core.actions.AttachClosestAnchors;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateRigidBody;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateUnmovableBody;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateVoxel;
+import io.github.ericmedvet.mrsim2d.core.actions.TranslateBody;
+import io.github.ericmedvet.mrsim2d.core.bodies.Anchor;
+import io.github.ericmedvet.mrsim2d.core.bodies.Body;
+import io.github.ericmedvet.mrsim2d.core.bodies.RigidBody;
+import io.github.ericmedvet.mrsim2d.core.bodies.Voxel;
+import io.github.ericmedvet.mrsim2d.core.engine.AdaptiveStepping;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.EngineSnapshot;
+import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class AdaptiveSteppingTest {
+
+  private final static double DURATION = 5;
+  private final static double LINK_T = 2;
+  private final static AdaptiveStepping ADAPTIVE_STEPPING = new AdaptiveStepping(0.005, 3);
+  private final static Poly GROUND = new Poly(
+      new Point(0, 0),
+      new Point(100, 0),
+      new Point(100, -10),
+      new Point(0, -10)
+  );
+
+  private record Worm(List<Voxel> voxels, RigidBody box) {
+    private List<Body> bodies() {
+      List<Body> bodies = new ArrayList<>(voxels);
+      bodies.add(box);
+      return bodies;
+    }
+  }
+
+  private static double baseTimeStep() {
+    Engine engine = new Dyn4JEngine();
+    engine.tick();
+    return engine.t();
+  }
+
+  private static RigidBody dropBox(Engine engine, double y) {
+    engine.perform(new CreateUnmovableBody(GROUND));
+    RigidBody box = engine.perform(new CreateRigidBody(Poly.square(1), 1)).outcome().orElseThrow();
+    engine.perform(new TranslateBody(box, new Point(50, y)));
+    return box;
+  }
+
+  //a row of voxels, each made of several bodies and joints, softly linked, with a box to be rigidly linked later
+  private static Worm dropWorm(Engine engine, double y) {
+    engine.perform(new CreateUnmovableBody(GROUND));
+    List<Voxel> voxels = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Voxel voxel = engine.perform(new CreateVoxel(1, 1)).outcome().orElseThrow();
+      engine.perform(new TranslateBody(voxel, new Point(48 + i, y)));
+      if (!voxels.isEmpty()) {
+        engine.perform(new AttachClosestAnchors(2, voxels.get(voxels.size() - 1), voxel, Anchor.Link.Type.SOFT));
+      }
+      voxels.add(voxel);
+    }
+    RigidBody box = engine.perform(new CreateRigidBody(Poly.square(1), 1)).outcome().orElseThrow();
+    engine.perform(new TranslateBody(box, new Point(50, y + 3)));
+    return new Worm(voxels, box);
+  }
+
+  private static List<Point> runWorm(Engine engine) {
+    Worm worm = dropWorm(engine, 2);
+    boolean linked = false;
+    while (engine.t() < DURATION) {
+      if (!linked && engine.t() >= LINK_T) {
+        //the box has landed on the worm: the new links start with the shortest steps
+        engine.perform(new AttachClosestAnchors(2, worm.box(), worm.voxels().get(1), Anchor.Link.Type.RIGID));
+        engine.perform(new AttachClosestAnchors(2, worm.box(), worm.voxels().get(2), Anchor.Link.Type.RIGID));
+        linked = true;
+      }
+      engine.tick();
+    }
+    return worm.bodies().stream().map(b -> b.poly().center()).toList();
+  }
+
+  @Test
+  public void ticksLastOneBaseTimeStep() {
+    double dT = baseTimeStep();
+    Engine engine = new Dyn4JEngine();
+    engine.setAdaptiveStepping(ADAPTIVE_STEPPING);
+    dropBox(engine, 3);
+    int nOfTicks = 0;
+    EngineSnapshot snapshot = null;
+    while (engine.t() < DURATION) {
+      double t = engine.t();
+      snapshot = (EngineSnapshot) engine.tick();
+      nOfTicks = nOfTicks + 1;
+      //time stays on the regular grid
+      assertEquals(dT, engine.t() - t, 1e-9);
+      assertEquals(nOfTicks * dT, engine.t(), 1e-6);
+    }
+    //the landing needs shorter steps, the fall and the rest do not
+    int nOfSteps = snapshot.counters().get(EngineSnapshot.CounterType.PHYSICS_STEP);
+    assertTrue(nOfSteps > nOfTicks);
+    assertTrue(nOfSteps < 2 * nOfTicks);
+  }
+
+  @Test
+  public void landingIsAsAccurateAsWithFixedSteps() {
+    Engine fixedEngine = new Dyn4JEngine();
+    RigidBody fixedBox = dropBox(fixedEngine, 3);
+    Engine adaptiveEngine = new Dyn4JEngine();
+    adaptiveEngine.setAdaptiveStepping(ADAPTIVE_STEPPING);
+    RigidBody adaptiveBox = dropBox(adaptiveEngine, 3);
+    while (fixedEngine.t() < DURATION) {
+      fixedEngine.tick();
+      adaptiveEngine.tick();
+      assertEquals(fixedEngine.t(), adaptiveEngine.t(), 1e-9);
+    }
+    //the box rests on the ground, at y=0, in both cases
+    assertEquals(0.5, fixedBox.poly().center().y(), 0.01);
+    assertEquals(fixedBox.poly().center().y(), adaptiveBox.poly().center().y(), 0.01);
+  }
+
+  @Test
+  public void linkedVoxelsFollowTheFixedStepTrajectory() {
+    Engine fixedEngine = new Dyn4JEngine();
+    List<Point> fixedCenters = runWorm(fixedEngine);
+    Engine adaptiveEngine = new Dyn4JEngine();
+    adaptiveEngine.setAdaptiveStepping(ADAPTIVE_STEPPING);
+    List<Point> adaptiveCenters = runWorm(adaptiveEngine);
+    assertEquals(fixedEngine.t(), adaptiveEngine.t(), 1e-9);
+    for (int i = 0; i < fixedCenters.size(); i++) {
+      //everything has landed, and the box stands on the worm
+      assertTrue(fixedCenters.get(i).y() > 0);
+      assertEquals(fixedCenters.get(i).x(), adaptiveCenters.get(i).x(), 0.05);
+      assertEquals(fixedCenters.get(i).y(), adaptiveCenters.get(i).y(), 0.05);
+    }
+    assertTrue(fixedCenters.get(fixedCenters.size() - 1).y() > 1);
+  }
+}
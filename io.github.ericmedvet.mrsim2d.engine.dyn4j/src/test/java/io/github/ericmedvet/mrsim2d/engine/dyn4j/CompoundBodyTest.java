@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.engine.dyn4j;
+
+import io.github.ericmedvet.mrsim2d.core.actions.AttachClosestAnchors;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateRigidBody;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateUnmovableBody;
+import io.github.ericmedvet.mrsim2d.core.actions.FindInContactBodies;
+import io.github.ericmedvet.mrsim2d.core.actions.TranslateBody;
+import io.github.ericmedvet.mrsim2d.core.bodies.Anchor;
+import io.github.ericmedvet.mrsim2d.core.bodies.UnmovableBody;
+import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+import org.dyn4j.dynamics.Body;
+import org.dyn4j.geometry.Vector2;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class CompoundBodyTest {
+
+  private final static double EPSILON = 1e-9;
+
+  private static Vector2 linearMomentum(Collection<Body> bodies) {
+    Vector2 p = new Vector2();
+    bodies.forEach(b -> p.add(b.getLinearVelocity().product(b.getMass().getMass())));
+    return p;
+  }
+
+  private static double angularMomentum(Collection<Body> bodies, Vector2 center) {
+    return bodies.stream()
+        .mapToDouble(b -> b.getMass().getInertia() * b.getAngularVelocity()
+            + b.getMass().getMass() * b.getWorldCenter().difference(center).cross(b.getLinearVelocity()))
+        .sum();
+  }
+
+  private static RigidBody rigidBody(Poly poly, double mass, double x, double y, double linearDamping) {
+    RigidBody rigidBody = new RigidBody(poly, mass, Double.POSITIVE_INFINITY, 1, 0.1, linearDamping, 0.1, 0);
+    rigidBody.getBody().translate(x, y);
+    return rigidBody;
+  }
+
+  @Test
+  public void fusionConservesMomentum() {
+    RigidBody rb1 = rigidBody(Poly.square(1), 1, 0, 0, 0.1);
+    RigidBody rb2 = rigidBody(Poly.rectangle(2, 1), 3, 1, 0, 0.3);
+    rb1.getBody().setLinearVelocity(1, 2);
+    rb1.getBody().setAngularVelocity(0.5);
+    rb2.getBody().setLinearVelocity(-1, 0.5);
+    rb2.getBody().setAngularVelocity(-2);
+    List<Body> parts = List.of(rb1.getBody(), rb2.getBody());
+    Vector2 p = linearMomentum(parts);
+    CompoundBody compoundBody = new CompoundBody(List.of(rb1, rb2));
+    Body body = compoundBody.getBody();
+    Vector2 center = body.getWorldCenter();
+    double l = angularMomentum(parts, center);
+    assertEquals(4d, body.getMass().getMass(), EPSILON);
+    assertEquals(p.x, body.getLinearVelocity().x * body.getMass().getMass(), EPSILON);
+    assertEquals(p.y, body.getLinearVelocity().y * body.getMass().getMass(), EPSILON);
+    assertEquals(l, body.getAngularVelocity() * body.getMass().getInertia(), EPSILON);
+    assertEquals((0.1 * 1 + 0.3 * 3) / 4d, body.getLinearDamping(), EPSILON);
+    //parts, moved and set as views of the compound body, have the same momentum
+    compoundBody.updateParts();
+    Vector2 partsP = linearMomentum(parts);
+    assertEquals(p.x, partsP.x, EPSILON);
+    assertEquals(p.y, partsP.y, EPSILON);
+    assertEquals(l, angularMomentum(parts, center), EPSILON);
+  }
+
+  @Test
+  public void contactsAreResolvedToTheTouchingPart() {
+    Dyn4JEngine engine = new Dyn4JEngine();
+    engine.setRigidBodyFusion(true);
+    UnmovableBody ground = engine.perform(new CreateUnmovableBody(FallPilingTest.FLAT_TERRAIN)).outcome().orElseThrow();
+    io.github.ericmedvet.mrsim2d.core.bodies.RigidBody lower = engine.perform(new CreateRigidBody(Poly.square(1), 1, 2))
+        .outcome()
+        .orElseThrow();
+    io.github.ericmedvet.mrsim2d.core.bodies.RigidBody upper = engine.perform(new CreateRigidBody(Poly.square(1), 1, 2))
+        .outcome()
+        .orElseThrow();
+    engine.perform(new TranslateBody(lower, new Point(50, 0)));
+    engine.perform(new TranslateBody(upper, new Point(50, 1)));
+    engine.perform(new AttachClosestAnchors(2, lower, upper, Anchor.Link.Type.RIGID));
+    for (int i = 0; i < 60; i = i + 1) {
+      engine.tick();
+    }
+    assertTrue(engine.perform(new FindInContactBodies(lower)).outcome().orElseThrow().contains(ground));
+    assertFalse(engine.perform(new FindInContactBodies(upper)).outcome().orElseThrow().contains(ground));
+    Collection<io.github.ericmedvet.mrsim2d.core.bodies.Body> groundContacts = engine.perform(
+        new FindInContactBodies(ground)
+    ).outcome().orElseThrow();
+    assertTrue(groundContacts.contains(lower));
+    assertFalse(groundContacts.contains(upper));
+  }
+}
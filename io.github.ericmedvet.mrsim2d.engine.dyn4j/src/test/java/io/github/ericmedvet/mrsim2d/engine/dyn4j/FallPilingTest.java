@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.engine.dyn4j;
+
+import io.github.ericmedvet.jsdynsym.core.DoubleRange;
+import io.github.ericmedvet.mrsim2d.core.Action;
+import io.github.ericmedvet.mrsim2d.core.ActionOutcome;
+import io.github.ericmedvet.mrsim2d.core.ActionPerformer;
+import io.github.ericmedvet.mrsim2d.core.EmbodiedAgent;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateRigidBody;
+import io.github.ericmedvet.mrsim2d.core.bodies.Body;
+import io.github.ericmedvet.mrsim2d.core.engine.ActionException;
+import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
+import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
+import io.github.ericmedvet.mrsim2d.core.tasks.PopulationEvaluator;
+import io.github.ericmedvet.mrsim2d.core.tasks.piling.FallPiling;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class FallPilingTest {
+
+  static final Terrain FLAT_TERRAIN = new Terrain(
+      new Poly(
+          new Point(0, 0),
+          new Point(0, 10),
+          new Point(5, 10),
+          new Point(5, 0),
+          new Point(95, 0),
+          new Point(95, 10),
+          new Point(100, 10),
+          new Point(100, -10),
+          new Point(0, -10)
+      ),
+      new DoubleRange(5, 95)
+  );
+
+  static class BoxAgent implements EmbodiedAgent {
+    private Body body;
+
+    @Override
+    public List<? extends Action<?>> act(double t, List<ActionOutcome<?, ?>> previousActionOutcomes) {
+      return List.of();
+    }
+
+    @Override
+    public void assemble(ActionPerformer actionPerformer) throws ActionException {
+      CreateRigidBody action = new CreateRigidBody(Poly.square(1), 1);
+      body = actionPerformer.perform(action, this)
+          .outcome()
+          .orElseThrow(() -> new ActionException(action, "Body creation failed"));
+    }
+
+    @Override
+    public List<Body> bodyParts() {
+      return List.of(body);
+    }
+  }
+
+  @Test
+  public void runStartingWithNoAgents() {
+    FallPiling task = new FallPiling(2, 0.5, 3, 0.1, new Random(1), FLAT_TERRAIN, 1, 10, outcome -> false, true);
+    Outcome outcome = task.run(BoxAgent::new, new Dyn4JEngine());
+    assertEquals(Outcome.Termination.COMPLETED, outcome.termination());
+    assertTrue(outcome.firstT() > 0, "the agent-less observation at the start is not recorded");
+    assertTrue(outcome.allAgentsMaxHeight() > 0);
+    Outcome subOutcome = outcome.subOutcome(new DoubleRange(1, Double.POSITIVE_INFINITY));
+    assertTrue(subOutcome.firstT() >= 1);
+    assertEquals(outcome.lastT(), subOutcome.lastT());
+  }
+
+  @Test
+  public void populationOutcomesDoNotDependOnWorkers() {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Supplier<EmbodiedAgent>> inputs = Collections.nCopies(8, BoxAgent::new);
+      List<List<Double>> heights = new ArrayList<>();
+      for (int nOfWorkers : List.of(1, 4)) {
+        FallPiling task = new FallPiling(2, 0.5, 3, 0.5, new Random(1), FLAT_TERRAIN, 1);
+        PopulationEvaluator<Supplier<EmbodiedAgent>, Outcome> evaluator = new PopulationEvaluator<>(
+            task,
+            Dyn4JEngine::new,
+            executor,
+            nOfWorkers
+        );
+        heights.add(evaluator.apply(inputs).stream().map(Outcome::allAgentsMaxHeight).toList());
+      }
+      assertEquals(heights.get(0), heights.get(1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
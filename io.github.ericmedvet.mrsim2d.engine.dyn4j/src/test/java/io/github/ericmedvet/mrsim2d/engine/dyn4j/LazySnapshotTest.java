@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.engine.dyn4j;
+
+import io.github.ericmedvet.mrsim2d.core.actions.CreateRigidBody;
+import io.github.ericmedvet.mrsim2d.core.bodies.Body;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.EngineSnapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.SnapshotPolicy;
+import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class LazySnapshotTest {
+
+  @Test
+  public void lazySnapshotKeepsTheBodiesOfItsTick() {
+    Engine engine = new Dyn4JEngine();
+    engine.setSnapshotPolicy(SnapshotPolicy.LAZY);
+    Body body = engine.perform(new CreateRigidBody(Poly.square(1), 1)).outcome().orElseThrow();
+    EngineSnapshot snapshot = (EngineSnapshot) engine.tick();
+    engine.perform(new CreateRigidBody(Poly.square(1), 1));
+    engine.tick();
+    assertEquals(List.of(body), List.copyOf(snapshot.bodies()));
+    assertTrue(snapshot.agents().isEmpty());
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.engine.dyn4j;
+
+import io.github.ericmedvet.jsdynsym.core.DoubleRange;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
+import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
+import io.github.ericmedvet.mrsim2d.core.tasks.piling.FallPiling;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class ResetTest {
+
+  private final static Terrain STEP_TERRAIN = new Terrain(
+      new Poly(
+          new Point(0, 0),
+          new Point(0, 10),
+          new Point(5, 10),
+          new Point(5, 0),
+          new Point(12, 0),
+          new Point(12, 1),
+          new Point(95, 1),
+          new Point(95, 10),
+          new Point(100, 10),
+          new Point(100, -10),
+          new Point(0, -10)
+      ),
+      new DoubleRange(5, 95)
+  );
+
+  private static List<Double> run(Terrain terrain, Engine engine) {
+    FallPiling task = new FallPiling(3, 0.5, 4, 0.5, new Random(1), terrain, 1);
+    Outcome outcome = task.run(FallPilingTest.BoxAgent::new, 0, engine);
+    return List.of(
+        outcome.lastT(),
+        outcome.allAgentsMaxHeight(),
+        outcome.allAgentsFinalWidth(),
+        outcome.allAgentsAverageHeight()
+    );
+  }
+
+  @Test
+  public void resetEngineBehavesAsFreshEngine() {
+    Engine engine = new Dyn4JEngine();
+    List<Double> first = run(FallPilingTest.FLAT_TERRAIN, engine);
+    engine.reset();
+    assertEquals(0d, engine.t());
+    assertEquals(first, run(FallPilingTest.FLAT_TERRAIN, engine));
+    assertEquals(first, run(FallPilingTest.FLAT_TERRAIN, new Dyn4JEngine()));
+  }
+
+  @Test
+  public void resetEngineBehavesAsFreshEngineAfterOtherTerrain() {
+    Engine engine = new Dyn4JEngine();
+    run(STEP_TERRAIN, engine);
+    engine.reset();
+    List<Double> reused = run(FallPilingTest.FLAT_TERRAIN, engine);
+    engine.reset();
+    run(STEP_TERRAIN, engine);
+    engine.reset();
+    assertEquals(reused, run(FallPilingTest.FLAT_TERRAIN, engine));
+    assertEquals(reused, run(FallPilingTest.FLAT_TERRAIN, new Dyn4JEngine()));
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.sample;
+
+import io.github.ericmedvet.jnb.core.NamedBuilder;
+import io.github.ericmedvet.jsdynsym.core.DoubleRange;
+import io.github.ericmedvet.jsdynsym.core.NumericalParametrized;
+import io.github.ericmedvet.jsdynsym.core.composed.Composed;
+import io.github.ericmedvet.mrsim2d.buildable.PreparedNamedBuilder;
+import io.github.ericmedvet.mrsim2d.core.EmbodiedAgent;
+import io.github.ericmedvet.mrsim2d.core.NumMultiBrained;
+import io.github.ericmedvet.mrsim2d.core.Snapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.AdaptiveStepping;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.EngineSnapshot;
+import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
+import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
+import io.github.ericmedvet.mrsim2d.core.tasks.locomotion.Locomotion;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Compares fixed and adaptive stepping on a trained biped VSR and on a legged robot with sinusoidal controllers, both
+ * doing locomotion on a hilly terrain. The reference is the run always using the shortest step, i.e., the tick
+ * duration halved {@link #MAX_HALVINGS} times. For each stepping, it reports the wall time of the run, the average
+ * number of physics steps per tick, and the drift of the trajectory with respect to the reference, measured as the
+ * average absolute difference, in m, of the x-distance traveled by the agent, sampled every second.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class AdaptiveSteppingBenchmark {
+
+  private final static Logger L = Logger.getLogger(AdaptiveSteppingBenchmark.class.getName());
+  private final static double DURATION = 30;
+  private final static String TERRAIN = "s.t.hilly(chunkW = 2; chunkH = 0.2)";
+  private final static int MAX_HALVINGS = 3;
+  private final static List<Double> TOLERANCES = List.of(0.02, 0.005, 0.001);
+
+  private record Scenario(String name, String agentResource, String weightsResource) {}
+
+  private record Stepping(String name, AdaptiveStepping adaptiveStepping) {}
+
+  private static double drift(Outcome outcome, Outcome referenceOutcome) {
+    double sum = 0;
+    int n = 0;
+    for (double t = 1; t <= Math.min(outcome.lastT(), referenceOutcome.lastT()); t = t + 1) {
+      DoubleRange range = new DoubleRange(0, t);
+      sum = sum + Math.abs(
+          outcome.subOutcome(range).firstAgentXDistance() - referenceOutcome.subOutcome(range).firstAgentXDistance()
+      );
+      n = n + 1;
+    }
+    return n == 0 ? Double.NaN : (sum / (double) n);
+  }
+
+  private static Object fromBase64(String content) throws IOException {
+    try (ByteArrayInputStream bais = new ByteArrayInputStream(Base64.getDecoder().decode(content));
+         ObjectInputStream ois = new ObjectInputStream(bais)) {
+      return ois.readObject();
+    } catch (Throwable t) {
+      throw new IOException(t);
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    NamedBuilder<Object> nb = PreparedNamedBuilder.get();
+    Terrain terrain = (Terrain) nb.build(TERRAIN);
+    Locomotion locomotion = new Locomotion(DURATION, terrain, 1, 0.1, outcome -> false, true);
+    List<Scenario> scenarios = List.of(
+        new Scenario("biped-vsr", "trained-biped-vsr-centralized-mlp", "trained-biped-fast-mlp-weights"),
+        new Scenario("legged", "legged-sin", null)
+    );
+    //the reference is computed first: a null tolerance always halves the step
+    List<Stepping> steppings = new ArrayList<>();
+    steppings.add(new Stepping("reference", new AdaptiveStepping(0, MAX_HALVINGS)));
+    steppings.add(new Stepping("fixed", AdaptiveStepping.DISABLED));
+    TOLERANCES.forEach(tolerance -> steppings.add(new Stepping(
+        "tol=%5.3f".formatted(tolerance),
+        new AdaptiveStepping(tolerance, MAX_HALVINGS)
+    )));
+    for (Scenario scenario : scenarios) {
+      Supplier<EmbodiedAgent> agentSupplier = agentSupplier(nb, scenario);
+      L.info("Running %s".formatted(scenario.name()));
+      Outcome referenceOutcome = null;
+      for (Stepping stepping : steppings) {
+        Engine engine = ServiceLoader.load(Engine.class).findFirst().orElseThrow();
+        engine.setAdaptiveStepping(stepping.adaptiveStepping());
+        Snapshot[] lastSnapshot = new Snapshot[1];
+        Outcome outcome = locomotion.run(agentSupplier, engine, s -> lastSnapshot[0] = s);
+        if (referenceOutcome == null) {
+          referenceOutcome = outcome;
+        }
+        EngineSnapshot snapshot = (EngineSnapshot) lastSnapshot[0];
+        double nOfTicks = snapshot.counters().get(EngineSnapshot.CounterType.TICK);
+        System.out.printf(
+            "%-10s %-9s wallTime=%6.2fs stepsPerTick=%5.2f xDistance=%6.2fm drift=%6.3fm%n",
+            scenario.name(),
+            stepping.name(),
+            snapshot.times().get(EngineSnapshot.TimeType.WALL),
+            snapshot.counters().get(EngineSnapshot.CounterType.PHYSICS_STEP) / nOfTicks,
+            outcome.firstAgentXDistance(),
+            drift(outcome, referenceOutcome)
+        );
+      }
+    }
+  }
+
+  private static Supplier<EmbodiedAgent> agentSupplier(NamedBuilder<?> nb, Scenario scenario) throws IOException {
+    String agentDescription = readResource("/agents/%s.txt".formatted(scenario.agentResource()));
+    List<Double> params;
+    if (scenario.weightsResource() != null) {
+      //noinspection unchecked
+      params = (List<Double>) fromBase64(readResource("/agents/%s.txt".formatted(scenario.weightsResource())));
+    } else {
+      params = null;
+    }
+    return () -> {
+      EmbodiedAgent agent = (EmbodiedAgent) nb.build(agentDescription);
+      if (params != null && agent instanceof NumMultiBrained numMultiBrained) {
+        numMultiBrained.brains().stream()
+            .map(b -> Composed.shallowest(b, NumericalParametrized.class))
+            .forEach(o -> o.ifPresent(np -> np.setParams(params.stream().mapToDouble(d -> d).toArray())));
+      }
+      return agent;
+    };
+  }
+
+  private static String readResource(String resourcePath) throws IOException {
+    InputStream inputStream = AdaptiveSteppingBenchmark.class.getResourceAsStream(resourcePath);
+    if (inputStream == null) {
+      throw new IOException("Cannot find resource %s".formatted(resourcePath));
+    }
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
+      return br.lines().collect(Collectors.joining());
+    }
+  }
+}
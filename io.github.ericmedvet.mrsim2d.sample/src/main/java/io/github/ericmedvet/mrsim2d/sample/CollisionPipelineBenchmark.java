@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.sample;
+
+import io.github.ericmedvet.jnb.core.NamedBuilder;
+import io.github.ericmedvet.mrsim2d.buildable.PreparedNamedBuilder;
+import io.github.ericmedvet.mrsim2d.core.EmbodiedAgent;
+import io.github.ericmedvet.mrsim2d.core.Snapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.CollisionPipeline;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.EngineSnapshot;
+import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
+import io.github.ericmedvet.mrsim2d.core.tasks.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the {@link CollisionPipeline}s on a single agent on a long terrain and on a pile of many agents. For each
+ * combination of broadphase and narrowphase, it reports the average number of broadphase pairs and contact pairs per
+ * tick and the average tick time.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class CollisionPipelineBenchmark {
+
+  private final static Logger L = Logger.getLogger(CollisionPipelineBenchmark.class.getName());
+  private final static String AGENT_RESOURCE = "/agents/biped-vsr-centralized-mlp.txt";
+
+  private record Scenario(String name, String taskDescription) {}
+
+  public static void main(String[] args) throws IOException {
+    NamedBuilder<Object> nb = PreparedNamedBuilder.get();
+    String agentDescription = readResource(AGENT_RESOURCE);
+    Supplier<EmbodiedAgent> agentSupplier = () -> (EmbodiedAgent) nb.build(agentDescription);
+    List<Scenario> scenarios = List.of(
+        new Scenario(
+            "single-on-long-terrain",
+            "s.task.locomotion(duration = 30; terrain = s.t.hilly(chunkW = 0.5; chunkH = 0.1; w = 2000))"
+        ),
+        new Scenario("pile-of-50", "s.task.standPiling(duration = 15; nOfAgents = 50; xGapRatio = 0.1)")
+    );
+    L.info("Warming up");
+    run(task(nb, scenarios.get(0)), agentSupplier, CollisionPipeline.DEFAULT);
+    L.info("Testing");
+    for (Scenario scenario : scenarios) {
+      Task<Supplier<EmbodiedAgent>, Outcome> task = task(nb, scenario);
+      for (CollisionPipeline.Broadphase broadphase : CollisionPipeline.Broadphase.values()) {
+        for (CollisionPipeline.Narrowphase narrowphase : CollisionPipeline.Narrowphase.values()) {
+          CollisionPipeline collisionPipeline = new CollisionPipeline(
+              broadphase,
+              narrowphase,
+              CollisionPipeline.DEFAULT.aabbExpansion()
+          );
+          EngineSnapshot snapshot = run(task, agentSupplier, collisionPipeline);
+          double nOfTicks = snapshot.counters().get(EngineSnapshot.CounterType.TICK);
+          System.out.printf(
+              "%-22s %-17s %-3s broadphasePairs=%8.1f contactPairs=%7.1f tickTime=%7.3fms%n",
+              scenario.name(),
+              broadphase.name().toLowerCase(),
+              narrowphase.name().toLowerCase(),
+              snapshot.counters().get(EngineSnapshot.CounterType.BROADPHASE_PAIR) / nOfTicks,
+              snapshot.counters().get(EngineSnapshot.CounterType.CONTACT_PAIR) / nOfTicks,
+              snapshot.times().get(EngineSnapshot.TimeType.TICK) / nOfTicks * 1000d
+          );
+        }
+      }
+    }
+  }
+
+  private static String readResource(String resourcePath) throws IOException {
+    InputStream inputStream = CollisionPipelineBenchmark.class.getResourceAsStream(resourcePath);
+    if (inputStream == null) {
+      throw new IOException("Cannot find resource %s".formatted(resourcePath));
+    }
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
+      return br.lines().collect(Collectors.joining());
+    }
+  }
+
+  private static EngineSnapshot run(
+      Task<Supplier<EmbodiedAgent>, Outcome> task,
+      Supplier<EmbodiedAgent> agentSupplier,
+      CollisionPipeline collisionPipeline
+  ) {
+    Engine engine = ServiceLoader.load(Engine.class).findFirst().orElseThrow();
+    engine.setCollisionPipeline(collisionPipeline);
+    Snapshot[] lastSnapshot = new Snapshot[1];
+    task.run(agentSupplier, engine, s -> lastSnapshot[0] = s);
+    return (EngineSnapshot) lastSnapshot[0];
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Task<Supplier<EmbodiedAgent>, Outcome> task(NamedBuilder<?> nb, Scenario scenario) {
+    return (Task<Supplier<EmbodiedAgent>, Outcome>) nb.build(scenario.taskDescription());
+  }
+}
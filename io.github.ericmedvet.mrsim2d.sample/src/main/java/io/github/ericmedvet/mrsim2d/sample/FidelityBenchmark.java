@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.sample;
+
+import io.github.ericmedvet.jnb.core.NamedBuilder;
+import io.github.ericmedvet.jsdynsym.core.DoubleRange;
+import io.github.ericmedvet.jsdynsym.core.NumericalParametrized;
+import io.github.ericmedvet.jsdynsym.core.composed.Composed;
+import io.github.ericmedvet.mrsim2d.buildable.PreparedNamedBuilder;
+import io.github.ericmedvet.mrsim2d.core.EmbodiedAgent;
+import io.github.ericmedvet.mrsim2d.core.NumMultiBrained;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.FidelityProfile;
+import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
+import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
+import io.github.ericmedvet.mrsim2d.core.tasks.locomotion.Locomotion;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the {@link FidelityProfile}s on a trained biped VSR and on a legged robot with sinusoidal controllers, both
+ * doing locomotion on a hilly terrain. For each profile, it reports the wall time of the run and the drift of the
+ * trajectory with respect to the one obtained with {@link FidelityProfile#ACCURATE}, measured as the average absolute
+ * difference, in m, of the x-distance traveled by the agent, sampled every second.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class FidelityBenchmark {
+
+  private final static Logger L = Logger.getLogger(FidelityBenchmark.class.getName());
+  private final static double DURATION = 30;
+  private final static String TERRAIN = "s.t.hilly(chunkW = 2; chunkH = 0.2)";
+
+  private record Scenario(String name, String agentResource, String weightsResource) {}
+
+  private static double drift(Outcome outcome, Outcome referenceOutcome) {
+    double sum = 0;
+    int n = 0;
+    for (double t = 1; t <= Math.min(outcome.lastT(), referenceOutcome.lastT()); t = t + 1) {
+      DoubleRange range = new DoubleRange(0, t);
+      sum = sum + Math.abs(
+          outcome.subOutcome(range).firstAgentXDistance() - referenceOutcome.subOutcome(range).firstAgentXDistance()
+      );
+      n = n + 1;
+    }
+    return n == 0 ? Double.NaN : (sum / (double) n);
+  }
+
+  private static Object fromBase64(String content) throws IOException {
+    try (ByteArrayInputStream bais = new ByteArrayInputStream(Base64.getDecoder().decode(content));
+         ObjectInputStream ois = new ObjectInputStream(bais)) {
+      return ois.readObject();
+    } catch (Throwable t) {
+      throw new IOException(t);
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    NamedBuilder<Object> nb = PreparedNamedBuilder.get();
+    Terrain terrain = (Terrain) nb.build(TERRAIN);
+    Locomotion locomotion = new Locomotion(DURATION, terrain, 1, 0.1, outcome -> false, true);
+    List<Scenario> scenarios = List.of(
+        new Scenario("biped-vsr", "trained-biped-vsr-centralized-mlp", "trained-biped-fast-mlp-weights"),
+        new Scenario("legged", "legged-sin", null)
+    );
+    for (Scenario scenario : scenarios) {
+      Supplier<EmbodiedAgent> agentSupplier = agentSupplier(nb, scenario);
+      Map<FidelityProfile, Outcome> outcomes = new EnumMap<>(FidelityProfile.class);
+      Map<FidelityProfile, Double> times = new EnumMap<>(FidelityProfile.class);
+      List<FidelityProfile> profiles = new ArrayList<>(List.of(FidelityProfile.values()));
+      //the reference is computed first
+      Collections.reverse(profiles);
+      L.info("Running %s".formatted(scenario.name()));
+      for (FidelityProfile profile : profiles) {
+        @SuppressWarnings("unchecked")
+        Supplier<Engine> engineSupplier = (Supplier<Engine>) nb.build("sim.engine(profile = %s)".formatted(
+            profile.name().toLowerCase()
+        ));
+        long startingNanoTime = System.nanoTime();
+        outcomes.put(profile, locomotion.run(agentSupplier, engineSupplier.get()));
+        times.put(profile, (System.nanoTime() - startingNanoTime) / 1000000000d);
+      }
+      for (FidelityProfile profile : FidelityProfile.values()) {
+        System.out.printf(
+            "%-10s %-9s time=%6.2fs xDistance=%6.2fm drift=%6.3fm%n",
+            scenario.name(),
+            profile.name().toLowerCase(),
+            times.get(profile),
+            outcomes.get(profile).firstAgentXDistance(),
+            drift(outcomes.get(profile), outcomes.get(FidelityProfile.ACCURATE))
+        );
+      }
+    }
+  }
+
+  private static Supplier<EmbodiedAgent> agentSupplier(NamedBuilder<?> nb, Scenario scenario) throws IOException {
+    String agentDescription = readResource("/agents/%s.txt".formatted(scenario.agentResource()));
+    List<Double> params;
+    if (scenario.weightsResource() != null) {
+      //noinspection unchecked
+      params = (List<Double>) fromBase64(readResource("/agents/%s.txt".formatted(scenario.weightsResource())));
+    } else {
+      params = null;
+    }
+    return () -> {
+      EmbodiedAgent agent = (EmbodiedAgent) nb.build(agentDescription);
+      if (params != null && agent instanceof NumMultiBrained numMultiBrained) {
+        numMultiBrained.brains().stream()
+            .map(b -> Composed.shallowest(b, NumericalParametrized.class))
+            .forEach(o -> o.ifPresent(np -> np.setParams(params.stream().mapToDouble(d -> d).toArray())));
+      }
+      return agent;
+    };
+  }
+
+  private static String readResource(String resourcePath) throws IOException {
+    InputStream inputStream = FidelityBenchmark.class.getResourceAsStream(resourcePath);
+    if (inputStream == null) {
+      throw new IOException("Cannot find resource %s".formatted(resourcePath));
+    }
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
+      return br.lines().collect(Collectors.joining());
+    }
+  }
+}
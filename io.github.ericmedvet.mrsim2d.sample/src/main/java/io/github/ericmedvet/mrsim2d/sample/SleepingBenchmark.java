@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.sample;
+
+import io.github.ericmedvet.jnb.core.NamedBuilder;
+import io.github.ericmedvet.jsdynsym.core.NumericalParametrized;
+import io.github.ericmedvet.jsdynsym.core.composed.Composed;
+import io.github.ericmedvet.mrsim2d.buildable.PreparedNamedBuilder;
+import io.github.ericmedvet.mrsim2d.core.EmbodiedAgent;
+import io.github.ericmedvet.mrsim2d.core.NumMultiBrained;
+import io.github.ericmedvet.mrsim2d.core.Snapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.EngineSnapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.SleepPolicy;
+import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
+import io.github.ericmedvet.mrsim2d.core.tasks.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Compares piling tasks run with and without sleeping bodies. Agents are biped VSRs whose MLP has all-zero weights,
+ * hence with constant actuation, so that they can settle once landed. For each task, it reports the wall time, the
+ * average number of sleeping (engine) bodies per tick, and the final height of the pile.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class SleepingBenchmark {
+
+  private final static Logger L = Logger.getLogger(SleepingBenchmark.class.getName());
+  private final static String AGENT_RESOURCE = "/agents/biped-vsr-centralized-mlp.txt";
+  private final static List<String> TASKS = List.of(
+      "s.task.fallPiling(duration = 60; nOfAgents = 10; fallInterval = 5)",
+      "s.task.standPiling(duration = 45; nOfAgents = 10)"
+  );
+
+  public static void main(String[] args) throws IOException {
+    NamedBuilder<Object> nb = PreparedNamedBuilder.get();
+    String agentDescription = readResource(AGENT_RESOURCE);
+    Supplier<EmbodiedAgent> agentSupplier = () -> {
+      EmbodiedAgent agent = (EmbodiedAgent) nb.build(agentDescription);
+      if (agent instanceof NumMultiBrained numMultiBrained) {
+        numMultiBrained.brains().stream()
+            .map(b -> Composed.shallowest(b, NumericalParametrized.class))
+            .forEach(o -> o.ifPresent(np -> np.setParams(new double[np.getParams().length])));
+      }
+      return agent;
+    };
+    for (String taskDescription : TASKS) {
+      @SuppressWarnings("unchecked")
+      Task<Supplier<EmbodiedAgent>, Outcome> task = (Task<Supplier<EmbodiedAgent>, Outcome>) nb.build(
+          taskDescription
+      );
+      L.info("Running %s".formatted(taskDescription));
+      for (SleepPolicy sleepPolicy : List.of(SleepPolicy.NEVER, SleepPolicy.DEFAULT)) {
+        Engine engine = ServiceLoader.load(Engine.class).findFirst().orElseThrow();
+        engine.setSleepPolicy(sleepPolicy);
+        Snapshot[] lastSnapshot = new Snapshot[1];
+        Outcome outcome = task.run(agentSupplier, engine, s -> lastSnapshot[0] = s);
+        EngineSnapshot snapshot = (EngineSnapshot) lastSnapshot[0];
+        double nOfTicks = snapshot.counters().get(EngineSnapshot.CounterType.TICK);
+        System.out.printf(
+            "%-8s wallTime=%6.2fs sleepingBodies=%6.1f height=%5.2fm on %s%n",
+            sleepPolicy.isEnabled() ? "sleeping" : "awake",
+            snapshot.times().get(EngineSnapshot.TimeType.WALL),
+            snapshot.counters().get(EngineSnapshot.CounterType.SLEEPING_BODY) / nOfTicks,
+            outcome.allAgentsFinalHeight(),
+            taskDescription
+        );
+      }
+    }
+  }
+
+  private static String readResource(String resourcePath) throws IOException {
+    InputStream inputStream = SleepingBenchmark.class.getResourceAsStream(resourcePath);
+    if (inputStream == null) {
+      throw new IOException("Cannot find resource %s".formatted(resourcePath));
+    }
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
+      return br.lines().collect(Collectors.joining());
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.sample;
+
+import io.github.ericmedvet.jnb.core.NamedBuilder;
+import io.github.ericmedvet.mrsim2d.buildable.PreparedNamedBuilder;
+import io.github.ericmedvet.mrsim2d.core.Action;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateAndTranslateRigidBody;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateTerrainBody;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateUnmovableBody;
+import io.github.ericmedvet.mrsim2d.core.bodies.UnmovableBody;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.geometry.Poly;
+import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Compares the creation of terrains as decomposed unmovable bodies ({@link CreateUnmovableBody}), as chains of
+ * segments ({@link CreateTerrainBody}), and as streamed chunks of segments, in terms of creation time and simulation
+ * speed with some falling bodies.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class TerrainBodyBenchmark {
+
+  private final static Logger L = Logger.getLogger(TerrainBodyBenchmark.class.getName());
+  private final static double DURATION = 20;
+  private final static int N_OF_BODIES = 20;
+  private final static int N_OF_TIMES = 5;
+
+  private record Creator(String name, Function<Poly, Action<? extends UnmovableBody>> function) {}
+
+  public static void main(String[] args) {
+    NamedBuilder<Object> nb = PreparedNamedBuilder.get();
+    List<String> terrains = List.of(
+        "s.t.flat()",
+        "s.t.hilly(chunkW = 0.5; chunkH = 0.1; w = 500)",
+        "s.t.steppy(chunkW = 0.5; chunkH = 0.1; w = 500)",
+        "s.t.hilly(chunkW = 0.5; chunkH = 0.1; w = 1500)",
+        "s.t.hilly(chunkW = 0.5; chunkH = 0.1; w = 5000)"
+    );
+    List<Creator> creators = List.of(
+        new Creator("decomposed", CreateUnmovableBody::new),
+        new Creator("chain", CreateTerrainBody::new),
+        new Creator("streamed", p -> new CreateTerrainBody(p, Double.POSITIVE_INFINITY, 10, 5))
+    );
+    L.info("Warming up");
+    run((Terrain) nb.build(terrains.get(0)), creators.get(0).function());
+    L.info("Testing");
+    for (String terrainDescription : terrains) {
+      Terrain terrain = (Terrain) nb.build(terrainDescription);
+      for (Creator creator : creators) {
+        double creationTime = 0;
+        double simulationTime = 0;
+        for (int i = 0; i < N_OF_TIMES; i++) {
+          double[] times = run(terrain, creator.function());
+          creationTime = creationTime + times[0] / N_OF_TIMES;
+          simulationTime = simulationTime + times[1] / N_OF_TIMES;
+        }
+        System.out.printf(
+            "%-10s creation=%7.4fs simulation=%6.3fs on %s%n",
+            creator.name(),
+            creationTime,
+            simulationTime,
+            terrainDescription
+        );
+      }
+    }
+  }
+
+  private static double[] run(Terrain terrain, Function<Poly, Action<? extends UnmovableBody>> creator) {
+    Engine engine = ServiceLoader.load(Engine.class).findFirst().orElseThrow();
+    long startingNanoTime = System.nanoTime();
+    engine.perform(creator.apply(terrain.poly()));
+    double creationTime = (System.nanoTime() - startingNanoTime) / 1000000000d;
+    double minX = terrain.withinBordersXRange().min();
+    for (int i = 0; i < N_OF_BODIES; i++) {
+      double x = minX + 2d * i;
+      engine.perform(new CreateAndTranslateRigidBody(
+          Poly.square(1),
+          1,
+          Double.POSITIVE_INFINITY,
+          new Point(x, terrain.maxHeightAt(x) + 2 + i % 3)
+      ));
+    }
+    startingNanoTime = System.nanoTime();
+    while (engine.t() < DURATION) {
+      engine.tick();
+    }
+    double simulationTime = (System.nanoTime() - startingNanoTime) / 1000000000d;
+    return new double[]{creationTime, simulationTime};
+  }
+}
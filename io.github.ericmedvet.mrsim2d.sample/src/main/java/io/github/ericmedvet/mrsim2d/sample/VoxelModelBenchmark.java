@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 Eric Medvet <eric.medvet@gmail.com> (as eric)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.ericmedvet.mrsim2d.sample;
+
+import io.github.ericmedvet.jnb.core.NamedBuilder;
+import io.github.ericmedvet.jsdynsym.core.NumericalParametrized;
+import io.github.ericmedvet.jsdynsym.core.composed.Composed;
+import io.github.ericmedvet.mrsim2d.buildable.PreparedNamedBuilder;
+import io.github.ericmedvet.mrsim2d.core.EmbodiedAgent;
+import io.github.ericmedvet.mrsim2d.core.NumMultiBrained;
+import io.github.ericmedvet.mrsim2d.core.Snapshot;
+import io.github.ericmedvet.mrsim2d.core.actions.ActuateVoxel;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateAndTranslateVoxel;
+import io.github.ericmedvet.mrsim2d.core.actions.CreateUnmovableBody;
+import io.github.ericmedvet.mrsim2d.core.bodies.Voxel;
+import io.github.ericmedvet.mrsim2d.core.engine.Engine;
+import io.github.ericmedvet.mrsim2d.core.engine.EngineSnapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.VoxelModel;
+import io.github.ericmedvet.mrsim2d.core.geometry.Point;
+import io.github.ericmedvet.mrsim2d.core.geometry.Terrain;
+import io.github.ericmedvet.mrsim2d.core.tasks.Outcome;
+import io.github.ericmedvet.mrsim2d.core.tasks.locomotion.Locomotion;
+
+import java.util.List;
+import java.util.Random;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Calibrates the {@link VoxelModel#LIGHTWEIGHT} voxel against the {@link VoxelModel#STANDARD} one. First, it compares
+ * the response of a single voxel resting on a flat terrain to constant actuation values, in terms of the area ratio
+ * after some time. Then, it compares the tick time and the traveled distance of a 10x5 VSR doing locomotion.
+ *
+ * @author "Eric Medvet" on 2023/02/04 for 2dmrsim
+ */
+public class VoxelModelBenchmark {
+
+  private final static Logger L = Logger.getLogger(VoxelModelBenchmark.class.getName());
+  private final static double RESPONSE_DURATION = 5;
+  private final static List<Double> ACTUATION_VALUES = List.of(-1d, -0.5d, 0d, 0.5d, 1d);
+  private final static String AGENT = "s.a.centralizedNumGridVSR(body = s.a.vsr.gridBody(shape = s.a.vsr.s.worm(w =" +
+      " 10; h = 5); sensorizingFunction = s.a.vsr.sf.directional(sSensors = [s.s.d(a = -90)]; headSensors = [s.s" +
+      ".sin()]; nSensors = [s.s.ar(); s.s.rv(a = 0); s.s.rv(a = 90)])); function = ds.num.mlp())";
+  private final static int SEED = 1;
+
+  private static double areaRatio(VoxelModel voxelModel, Terrain terrain, double actuationValue) {
+    Engine engine = ServiceLoader.load(Engine.class).findFirst().orElseThrow();
+    engine.setVoxelModel(voxelModel);
+    engine.perform(new CreateUnmovableBody(terrain));
+    double x = terrain.withinBordersXRange().denormalize(0.5);
+    Voxel voxel = engine.perform(new CreateAndTranslateVoxel(1, 1, new Point(x, terrain.maxHeightAt(x) + 0.1)))
+        .outcome()
+        .orElseThrow();
+    engine.perform(new ActuateVoxel(voxel, actuationValue));
+    while (engine.t() < RESPONSE_DURATION) {
+      engine.tick();
+    }
+    return voxel.areaRatio();
+  }
+
+  public static void main(String[] args) {
+    NamedBuilder<Object> nb = PreparedNamedBuilder.get();
+    Terrain terrain = (Terrain) nb.build("s.t.flat()");
+    //response
+    L.info("Comparing responses");
+    for (double actuationValue : ACTUATION_VALUES) {
+      double standardAreaRatio = areaRatio(VoxelModel.STANDARD, terrain, actuationValue);
+      double lightweightAreaRatio = areaRatio(VoxelModel.LIGHTWEIGHT, terrain, actuationValue);
+      System.out.printf(
+          "actuation=%+4.1f standardAreaRatio=%5.3f lightweightAreaRatio=%5.3f error=%6.3f%n",
+          actuationValue,
+          standardAreaRatio,
+          lightweightAreaRatio,
+          lightweightAreaRatio - standardAreaRatio
+      );
+    }
+    //speed
+    L.info("Comparing speeds");
+    Locomotion locomotion = new Locomotion(30, terrain);
+    Supplier<EmbodiedAgent> agentSupplier = () -> {
+      EmbodiedAgent agent = (EmbodiedAgent) nb.build(AGENT);
+      Random random = new Random(SEED);
+      if (agent instanceof NumMultiBrained numMultiBrained) {
+        numMultiBrained.brains().stream()
+            .map(b -> Composed.shallowest(b, NumericalParametrized.class))
+            .forEach(o -> o.ifPresent(np -> np.setParams(random.doubles(np.getParams().length, -1, 1).toArray())));
+      }
+      return agent;
+    };
+    for (VoxelModel voxelModel : VoxelModel.values()) {
+      Engine engine = ServiceLoader.load(Engine.class).findFirst().orElseThrow();
+      engine.setVoxelModel(voxelModel);
+      Snapshot[] lastSnapshot = new Snapshot[1];
+      Outcome outcome = locomotion.run(agentSupplier, engine, s -> lastSnapshot[0] = s);
+      EngineSnapshot snapshot = (EngineSnapshot) lastSnapshot[0];
+      System.out.printf(
+          "%-11s tickTime=%6.3fms wallTime=%6.2fs xDistance=%6.2fm%n",
+          voxelModel.name().toLowerCase(),
+          snapshot.times().get(EngineSnapshot.TimeType.TICK) / snapshot.counters()
+              .get(EngineSnapshot.CounterType.TICK) * 1000d,
+          snapshot.times().get(EngineSnapshot.TimeType.WALL),
+          outcome.firstAgentXDistance()
+      );
+    }
+  }
+}
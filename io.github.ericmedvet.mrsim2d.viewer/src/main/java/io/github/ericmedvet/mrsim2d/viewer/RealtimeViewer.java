@@ -17,6 +17,8 @@
 package io.github.ericmedvet.mrsim2d.viewer;
 
 import io.github.ericmedvet.mrsim2d.core.Snapshot;
+import io.github.ericmedvet.mrsim2d.core.engine.EngineSnapshot;
+import io.github.ericmedvet.mrsim2d.core.util.LazyCollection;
 
 import javax.swing.*;
 import java.awt.*;
@@ -28,6 +30,9 @@ import java.util.List;
 import java.util.function.Consumer;
 
 /**
+ * Draws the snapshots it accepts at (at most) the given frame rate. Since snapshots are buffered between frames, lazy
+ * snapshots (see {@link io.github.ericmedvet.mrsim2d.core.engine.SnapshotPolicy}) are rejected.
+ *
  * @author "Eric Medvet" on 2022/07/08 for 2dmrsim
  */
 public class RealtimeViewer extends JFrame implements Consumer<Snapshot> {
@@ -84,6 +89,9 @@ public class RealtimeViewer extends JFrame implements Consumer<Snapshot> {
   @SuppressWarnings("BusyWait")
   @Override
   public void accept(Snapshot snapshot) {
+    if (snapshot instanceof EngineSnapshot engineSnapshot && engineSnapshot.bodies() instanceof LazyCollection) {
+      throw new IllegalArgumentException("Lazy snapshots cannot be buffered: use an eager snapshot policy");
+    }
     if (startingInstant == null) {
       startingInstant = Instant.now();
     }
@@ -18,13 +18,13 @@ package io.github.ericmedvet.mrsim2d.viewer.drawers;
 
 import io.github.ericmedvet.jsdynsym.core.DoubleRange;
 import io.github.ericmedvet.mrsim2d.core.engine.EngineSnapshot;
-import io.github.ericmedvet.mrsim2d.core.util.Pair;
 import io.github.ericmedvet.mrsim2d.viewer.AbstractMemoryDrawer;
 import io.github.ericmedvet.mrsim2d.viewer.DrawingUtils;
 
 import java.awt.*;
 import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.stream.Collectors;
@@ -32,31 +32,34 @@ import java.util.stream.Collectors;
 /**
  * @author "Eric Medvet" on 2022/07/15 for 2dmrsim
  */
-public class EngineProfilingDrawer extends AbstractMemoryDrawer<Pair<Map<EngineSnapshot.TimeType, Double>,
-    Map<EngineSnapshot.CounterType, Integer>>> {
+public class EngineProfilingDrawer extends AbstractMemoryDrawer<EngineProfilingDrawer.Profile> {
   public static final String TICK_PS_FORMAT = "t/w=%3.0f%%";
   public static final String INNER_TICK_RATE_FORMAT = "it/t=%3.0f%%";
   public static final String ACTION_COUNT_FORMAT = "#a=%4.0f";
+  public static final String ACTION_TIME_RATE_FORMAT = "%s/p=%%3.0f%%%%";
   private final static double WINDOW_T = 1;
+  private final static int N_OF_TOP_ACTIONS = 3;
   private final static double BAR_W = 50;
   private final static double BAR_H = 10;
   private final static double MARGIN = 1;
   private final VerticalPosition verticalPosition;
   private final HorizontalPosition horizontalPosition;
+  private final int nOfTopActions;
 
   private final Map<EngineSnapshot.CounterType, Integer> maxCounterValues;
 
   public EngineProfilingDrawer(
       double windowT,
       VerticalPosition verticalPosition,
-      HorizontalPosition horizontalPosition
+      HorizontalPosition horizontalPosition,
+      int nOfTopActions
   ) {
     super(
         snapshot -> {
           if (snapshot instanceof EngineSnapshot engineSnapshot) {
-            return new Pair<>(engineSnapshot.times(), engineSnapshot.counters());
+            return new Profile(engineSnapshot.times(), engineSnapshot.counters(), engineSnapshot.actionProfiles());
           } else {
-            return new Pair<>(Map.of(), Map.of());
+            return new Profile(Map.of(), Map.of(), Map.of());
           }
         },
         windowT,
@@ -67,32 +70,58 @@ public class EngineProfilingDrawer extends AbstractMemoryDrawer<Pair<Map<EngineS
         .forEach(k -> maxCounterValues.put(k, 0));
     this.verticalPosition = verticalPosition;
     this.horizontalPosition = horizontalPosition;
+    this.nOfTopActions = nOfTopActions;
+  }
+
+  public EngineProfilingDrawer(
+      double windowT,
+      VerticalPosition verticalPosition,
+      HorizontalPosition horizontalPosition
+  ) {
+    this(windowT, verticalPosition, horizontalPosition, N_OF_TOP_ACTIONS);
   }
 
   public EngineProfilingDrawer() {
     this(WINDOW_T, VerticalPosition.BOTTOM, HorizontalPosition.RIGHT);
   }
 
+  protected record Profile(
+      Map<EngineSnapshot.TimeType, Double> times,
+      Map<EngineSnapshot.CounterType, Integer> counters,
+      Map<Class<?>, EngineSnapshot.ActionProfile> actionProfiles
+  ) {}
+
   @Override
   protected boolean innerDraw(
-      SortedMap<Double, Pair<Map<EngineSnapshot.TimeType, Double>, Map<EngineSnapshot.CounterType, Integer>>> memory,
+      SortedMap<Double, Profile> memory,
       Graphics2D g
   ) {
     //check if empty
-    if (memory.get(memory.firstKey()).first().isEmpty()) {
+    if (memory.get(memory.firstKey()).times().isEmpty()) {
       return false;
     }
     //obtain relative data
     Map<EngineSnapshot.TimeType, Double> relTimes = Arrays.stream(EngineSnapshot.TimeType.values())
         .collect(Collectors.toMap(
             k -> k,
-            k -> memory.get(memory.lastKey()).first().get(k) - memory.get(memory.firstKey()).first().get(k)
+            k -> memory.get(memory.lastKey()).times().get(k) - memory.get(memory.firstKey()).times().get(k)
         ));
     Map<EngineSnapshot.CounterType, Integer> relCounters = Arrays.stream(EngineSnapshot.CounterType.values())
         .collect(Collectors.toMap(
             k -> k,
-            k -> memory.get(memory.lastKey()).second().get(k) - memory.get(memory.firstKey()).second().get(k)
+            k -> memory.get(memory.lastKey()).counters().get(k) - memory.get(memory.firstKey()).counters().get(k)
         ));
+    //find costliest actions
+    Map<Class<?>, EngineSnapshot.ActionProfile> firstActionProfiles = memory.get(memory.firstKey()).actionProfiles();
+    List<Map.Entry<Class<?>, Double>> topActionTimes = memory.get(memory.lastKey()).actionProfiles().entrySet().stream()
+        .map(e -> Map.<Class<?>, Double>entry(
+            e.getKey(),
+            e.getValue().time() - (firstActionProfiles.containsKey(e.getKey()) ? firstActionProfiles.get(e.getKey())
+                .time() : 0d)
+        ))
+        .sorted(Map.Entry.<Class<?>, Double>comparingByValue().reversed())
+        .limit(nOfTopActions)
+        .toList();
     //update bounds
     DoubleRange percRange = new DoubleRange(0, 100);
     Arrays.stream(EngineSnapshot.CounterType.values())
@@ -111,7 +140,13 @@ public class EngineProfilingDrawer extends AbstractMemoryDrawer<Pair<Map<EngineS
         .stringWidth(ACTION_COUNT_FORMAT.formatted(
             (float) relCounters.get(EngineSnapshot.CounterType.ACTION)
         )));
-    double bbH = 3 * g.getFontMetrics().getHeight();
+    for (Map.Entry<Class<?>, Double> topActionTime : topActionTimes) {
+      bbW = Math.max(bbW, BAR_W + g.getFontMetrics().charWidth('x') + g.getFontMetrics()
+          .stringWidth(ACTION_TIME_RATE_FORMAT.formatted(topActionTime.getKey().getSimpleName()).formatted(
+              100 * topActionTime.getValue() / relTimes.get(EngineSnapshot.TimeType.PERFORM)
+          )));
+    }
+    double bbH = (3 + topActionTimes.size()) * g.getFontMetrics().getHeight();
     //draw
     double x = switch (horizontalPosition) {
       case LEFT -> MARGIN;
@@ -154,6 +189,19 @@ public class EngineProfilingDrawer extends AbstractMemoryDrawer<Pair<Map<EngineS
         ACTION_COUNT_FORMAT,
         g
     );
+    for (Map.Entry<Class<?>, Double> topActionTime : topActionTimes) {
+      y = y + g.getFontMetrics().getHeight();
+      DrawingUtils.drawFilledBar(
+          x,
+          y,
+          BAR_W,
+          BAR_H,
+          100 * topActionTime.getValue() / relTimes.get(EngineSnapshot.TimeType.PERFORM),
+          percRange,
+          ACTION_TIME_RATE_FORMAT.formatted(topActionTime.getKey().getSimpleName()),
+          g
+      );
+    }
     return true;
   }
 